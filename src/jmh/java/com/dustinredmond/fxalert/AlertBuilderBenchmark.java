@@ -0,0 +1,102 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.concurrent.TimeUnit;
+import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.ButtonType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of creating AlertBuilders, building their Alerts, and configuring
+ * them with chains of {@code with...} calls, on the JavaFX Application
+ * thread and lazily off it. Each invocation builds {@code BATCH} builders, so the hop to
+ * the JavaFX thread is amortised.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AlertBuilderBenchmark {
+
+    @Setup
+    public void setup() throws Exception {
+        FxHarness.start();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void construct(Blackhole bh) throws Exception {
+        FxHarness.onFx(() -> {
+            for (int i = 0; i < BATCH; i++) {
+                bh.consume(FXAlert.info());
+            }
+            return null;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void build(Blackhole bh) throws Exception {
+        FxHarness.onFx(() -> {
+            for (int i = 0; i < BATCH; i++) {
+                bh.consume(FXAlert.info().getAlert());
+            }
+            return null;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void withTextChain(Blackhole bh) throws Exception {
+        FxHarness.onFx(() -> {
+            for (int i = 0; i < BATCH; i++) {
+                bh.consume(FXAlert.warning()
+                    .withText("Title", "Header", "Content")
+                    .withText("Header again", "Content again")
+                    .withButtonTypes(ButtonType.OK, ButtonType.CANCEL)
+                    .resizable(true)
+                    .getAlert());
+            }
+            return null;
+        });
+    }
+
+    @Benchmark
+    public Object lazyToSpec() {
+        return AlertBuilder.lazy(AlertType.INFORMATION)
+            .withText("Title", "Header", "Content")
+            .withButtonTypes(ButtonType.OK)
+            .toSpec();
+    }
+
+    private static final int BATCH = 100;
+
+}
@@ -0,0 +1,86 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of ChoiceDialogBuilder with large numbers of choices: building
+ * the dialog with plain and indexed choices, building the index, and
+ * filtering it as the user types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChoiceDialogBenchmark {
+
+    @Param({"1000", "100000"})
+    public int items;
+
+    @Setup
+    public void setup() throws Exception {
+        FxHarness.start();
+        choices = new String[items];
+        for (int i = 0; i < items; i++) {
+            choices[i] = WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " #" + i;
+        }
+        index = new ChoiceIndex(choices);
+    }
+
+    @Benchmark
+    public Object withChoices() throws Exception {
+        return FxHarness.onFx(() -> FXAlert.choose().withChoices(choices).build());
+    }
+
+    @Benchmark
+    public Object withLargeChoices() throws Exception {
+        return FxHarness.onFx(() -> FXAlert.choose().withLargeChoices(choices).build());
+    }
+
+    @Benchmark
+    public Object buildIndex() {
+        return new ChoiceIndex(choices);
+    }
+
+    @Benchmark
+    public Object filterIndex() {
+        return index.filter("ngo go");
+    }
+
+    private static final String[] WORDS = {
+        "alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel",
+        "india", "juliett", "kilo", "lima", "mike", "november", "oscar", "papa",
+        "quebec", "romeo", "sierra", "tango", "uniform", "victor", "whiskey", "yankee"
+    };
+    private String[] choices;
+    private ChoiceIndex index;
+
+}
@@ -0,0 +1,83 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of building exception Alerts for throwables with deep stack
+ * traces and a cause. The trace itself is only formatted once the
+ * details are expanded, so construction should not grow with depth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ExceptionAlertBenchmark {
+
+    @Param({"20", "500", "5000"})
+    public int depth;
+
+    @Setup
+    public void setup() throws Exception {
+        FxHarness.start();
+        Throwable cause = deep(depth, new IllegalStateException("Root cause"));
+        throwable = deep(depth, new RuntimeException("Failed to load record 42", cause));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void construct(Blackhole bh) throws Exception {
+        FxHarness.onFx(() -> {
+            for (int i = 0; i < BATCH; i++) {
+                bh.consume(FXAlert.exception(throwable).getAlert());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Returns the throwable after filling in its stack
+     * trace from the given recursion depth.
+     */
+    private static Throwable deep(int depth, Throwable t) {
+        if (depth == 0) {
+            t.fillInStackTrace();
+            return t;
+        }
+        return deep(depth - 1, t);
+    }
+
+    private static final int BATCH = 10;
+    private Throwable throwable;
+
+}
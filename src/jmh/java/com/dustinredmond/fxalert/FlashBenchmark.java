@@ -0,0 +1,91 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.concurrent.TimeUnit;
+import javafx.util.Duration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@code FlashBuilder.show()}: distinct flashes, which are
+ * shown or queued by the FlashManager, and identical flashes, which are
+ * coalesced into the visible one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FlashBenchmark {
+
+    @Setup
+    public void setup() throws Exception {
+        FxHarness.start();
+        FxHarness.onFx(() -> {
+            FlashManager flashes = FXAlert.getFlashManager();
+            flashes.setMaxVisible(5);
+            flashes.setMaxQueued(100);
+            flashes.getStagePool().prewarm();
+            return null;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void showDistinct() throws Exception {
+        FxHarness.onFx(() -> {
+            FXAlert.getFlashManager().setCoalesceWindow(Duration.ZERO);
+            for (int i = 0; i < BATCH; i++) {
+                FXAlert.flash().warn()
+                    .withHeader("Header")
+                    .withContent("Content " + (counter++))
+                    .show();
+            }
+            return null;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void showCoalesced() throws Exception {
+        FxHarness.onFx(() -> {
+            FXAlert.getFlashManager().setCoalesceWindow(Duration.seconds(2));
+            for (int i = 0; i < BATCH; i++) {
+                FXAlert.flash().warn()
+                    .withHeader("Header")
+                    .withContent("Same content")
+                    .show();
+            }
+            return null;
+        });
+    }
+
+    private static final int BATCH = 100;
+    private int counter;
+
+}
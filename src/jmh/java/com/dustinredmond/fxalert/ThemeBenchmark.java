@@ -0,0 +1,107 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.concurrent.TimeUnit;
+import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.DialogPane;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Per-dialog CSS cost of styling with an inline {@code withStyle(String)}
+ * compared with a theme from {@code FXAlert.getThemes()}. Like a pooled
+ * Alert being reused, each operation restyles an existing dialog: the
+ * inline style is set again, and so parsed again, while the theme's
+ * stylesheet was parsed once. Both toggle a style class, so that CSS is
+ * reapplied in both cases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ThemeBenchmark {
+
+    @Setup
+    public void setup() throws Exception {
+        FxHarness.start();
+        FXAlert.getThemes().registerStyle(THEME, STYLE);
+        FxHarness.onFx(() -> {
+            inlinePane = AlertBuilder.lazy(AlertType.INFORMATION)
+                .withText("Title", "Header", "Content").getAlert().getDialogPane();
+            themedPane = AlertBuilder.lazy(AlertType.INFORMATION).withTheme(THEME)
+                .withText("Title", "Header", "Content").getAlert().getDialogPane();
+            inlinePane.applyCss();
+            themedPane.applyCss();
+            return null;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void inlineStyle(Blackhole bh) throws Exception {
+        FxHarness.onFx(() -> {
+            for (int i = 0; i < BATCH; i++) {
+                // an equal style string would not be applied again
+                inlinePane.setStyle((i & 1) == 0 ? STYLE : STYLE + " ");
+                restyle(inlinePane);
+                bh.consume(inlinePane);
+            }
+            return null;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void theme(Blackhole bh) throws Exception {
+        FxHarness.onFx(() -> {
+            for (int i = 0; i < BATCH; i++) {
+                restyle(themedPane);
+                bh.consume(themedPane);
+            }
+            return null;
+        });
+    }
+
+    private static void restyle(DialogPane pane) {
+        if (!pane.getStyleClass().remove(TOGGLE)) {
+            pane.getStyleClass().add(TOGGLE);
+        }
+        pane.applyCss();
+    }
+
+    private static final int BATCH = 20;
+    private static final String THEME = "benchmark";
+    private static final String TOGGLE = "benchmark-toggle";
+    private static final String STYLE = "-fx-font-size: 15px; -fx-background-color: #fafafa;"
+        + " -fx-border-color: #cccccc; -fx-border-width: 1px; -fx-padding: 12px;";
+    private DialogPane inlinePane;
+    private DialogPane themedPane;
+
+}
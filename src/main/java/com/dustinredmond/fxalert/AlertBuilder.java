@@ -16,10 +16,10 @@ package com.dustinredmond.fxalert;
  *  limitations under the License.
  */
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 import javafx.application.Platform;
 import javafx.event.EventHandler;
 import javafx.scene.Node;
@@ -27,8 +27,8 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.DialogEvent;
+import javafx.scene.control.DialogPane;
 import javafx.scene.control.Label;
-import javafx.scene.control.TextArea;
 import javafx.scene.image.Image;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Priority;
@@ -48,7 +48,7 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      * with type {@code javafx.scene.control.Alert.AlertType.INFORMATION}
      */
     public AlertBuilder() {
-        alert = new Alert(AlertType.INFORMATION);
+        this(AlertType.INFORMATION);
     }
 
     /**
@@ -57,7 +57,7 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      * @param type The desired {@code AlertType}
      */
     public AlertBuilder(AlertType type) {
-        this.alert = new Alert(type);
+        this(new LazyDialog<>(() -> new Alert(type), false), null);
     }
 
     /**
@@ -65,7 +65,7 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      * @param alert A {@code javafx.scene.control.Alert}
      */
     public AlertBuilder(Alert alert) {
-        this.alert = alert;
+        this(new LazyDialog<>(alert), null);
     }
 
     /**
@@ -77,29 +77,80 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      * @param contentText The Alert's content text
      */
     public AlertBuilder(Throwable t, String title, String header, String contentText) {
-        this.alert = new Alert(AlertType.ERROR);
+        this(new LazyDialog<>(() -> exceptionAlert(t, title, header, contentText), false), t);
+    }
+
+    private AlertBuilder(LazyDialog<Alert, ButtonType> alert, Throwable throwable) {
+        this.alert = alert;
+        this.throwable = throwable;
+    }
+
+    /**
+     * Creates an AlertBuilder that only records its configuration. The
+     * Alert is created when it is first shown or built, so, until then,
+     * the builder may be used from any thread. See {@code toSpec()}.
+     * @param type The desired {@code AlertType}
+     * @return AlertBuilder API
+     */
+    public static AlertBuilder lazy(AlertType type) {
+        return new AlertBuilder(new LazyDialog<>(() -> new Alert(type), true), null);
+    }
+
+    /**
+     * Creates a lazy AlertBuilder suitable for creating Alerts
+     * that display {@code Exception} stack traces. See {@code lazy(AlertType)}.
+     * @param t The throwable
+     * @param title The Alert's title text
+     * @param header The Alert's header text
+     * @param contentText The Alert's content text
+     * @return AlertBuilder API
+     */
+    public static AlertBuilder lazy(Throwable t, String title, String header, String contentText) {
+        return new AlertBuilder(new LazyDialog<>(() -> exceptionAlert(t, title, header, contentText), true), t);
+    }
+
+    /**
+     * Creates a lazy AlertBuilder whose Alert is borrowed from
+     * {@code FXAlert.getAlertPool()} and returned to it once hidden.
+     * @param type The desired {@code AlertType}
+     * @return AlertBuilder API
+     */
+    static AlertBuilder pooled(AlertType type) {
+        return new AlertBuilder(new LazyDialog<>(true, init -> FXAlert.getAlertPool().borrow(type, init)), null);
+    }
+
+    private static Alert exceptionAlert(Throwable t, String title, String header, String contentText) {
+        Alert alert = new Alert(AlertType.ERROR);
         alert.setResizable(true);
         alert.setTitle(title);
         alert.setHeaderText(header);
         alert.getDialogPane().setContent(new Label(title));
 
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        t.printStackTrace(pw);
-
-        TextArea ta = new TextArea(sw.toString());
-        ta.setEditable(false);
-        ta.setWrapText(true);
-        ta.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
-        GridPane.setVgrow(ta, Priority.ALWAYS);
-        GridPane.setHgrow(ta, Priority.ALWAYS);
+        // the trace is only turned into rows once the details are first expanded
+        StackTraceView trace = new StackTraceView(t);
+        trace.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        GridPane.setVgrow(trace, Priority.ALWAYS);
+        GridPane.setHgrow(trace, Priority.ALWAYS);
 
         GridPane grid = new GridPane();
         grid.setMaxWidth(Double.MAX_VALUE);
         grid.add(new Label(contentText), 0, 0);
-        grid.add(ta, 0, 1);
-        alert.getDialogPane().setExpandableContent(grid);
-        alert.getDialogPane().setExpanded(true);
+        grid.add(trace, 0, 1);
+        DialogPane pane = alert.getDialogPane();
+        pane.setExpandableContent(grid);
+        pane.expandedProperty().addListener((obs, wasExpanded, expanded) -> {
+            if (expanded && alert.isShowing()) {
+                trace.populate();
+            }
+        });
+        alert.showingProperty().addListener((obs, wasShowing, showing) -> {
+            if (!showing) {
+                trace.cancel();
+            } else if (pane.isExpanded()) {
+                trace.populate();
+            }
+        });
+        return alert;
     }
 
     /**
@@ -107,9 +158,11 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public AlertBuilder withText(String title, String header, String content) {
-        alert.setTitle(title);
-        alert.setHeaderText(header);
-        alert.setContentText(content);
+        alert.apply(a -> {
+            a.setTitle(title);
+            a.setHeaderText(header);
+            a.setContentText(content);
+        });
         return this;
     }
 
@@ -118,7 +171,7 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public AlertBuilder withStyle(String style) {
-        this.alert.getDialogPane().setStyle(style);
+        alert.apply(a -> a.getDialogPane().setStyle(style));
         return this;
     }
 
@@ -127,7 +180,7 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public AlertBuilder withStylesheet(String url) {
-        this.alert.getDialogPane().getStylesheets().add(url);
+        alert.addStylesheet(url);
         return this;
     }
 
@@ -136,8 +189,8 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public AlertBuilder withTitleBarIcon(Image image) {
-        ((Stage) this.alert.getDialogPane().getScene().getWindow())
-            .getIcons().add(image);
+        alert.apply(a -> ((Stage) a.getDialogPane().getScene().getWindow())
+            .getIcons().add(image));
         return this;
     }
 
@@ -147,7 +200,16 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public AlertBuilder withGraphic(Node image) {
-        this.alert.getDialogPane().setGraphic(image);
+        alert.apply(a -> a.getDialogPane().setGraphic(image));
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AlertBuilder withGraphic(Supplier<? extends Node> graphic) {
+        alert.apply(a -> a.getDialogPane().setGraphic(graphic.get()));
         return this;
     }
 
@@ -156,8 +218,10 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public AlertBuilder withButtonTypes(ButtonType... buttonTypes) {
-        this.alert.getButtonTypes().clear();
-        this.alert.getButtonTypes().addAll(buttonTypes);
+        alert.apply(a -> {
+            a.getButtonTypes().clear();
+            a.getButtonTypes().addAll(buttonTypes);
+        });
         return this;
     }
 
@@ -166,7 +230,7 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public AlertBuilder withInitModality(Modality modality) {
-        this.alert.initModality(modality);
+        alert.initModality(modality);
         return this;
     }
 
@@ -175,7 +239,7 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public AlertBuilder withInitOwner(Window window) {
-        this.alert.initOwner(window);
+        alert.initOwner(window);
         return this;
     }
 
@@ -184,7 +248,7 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public AlertBuilder withContent(Node content) {
-        this.alert.getDialogPane().setContent(content);
+        alert.apply(a -> a.getDialogPane().setContent(content));
         return this;
     }
 
@@ -193,8 +257,10 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public AlertBuilder withExpandableContent(Node content, boolean expanded) {
-        this.alert.getDialogPane().setExpandableContent(content);
-        this.alert.getDialogPane().setExpanded(expanded);
+        alert.apply(a -> {
+            a.getDialogPane().setExpandableContent(content);
+            a.getDialogPane().setExpanded(expanded);
+        });
         return this;
     }
 
@@ -203,7 +269,7 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public AlertBuilder resizable(boolean resizable) {
-        this.alert.setResizable(resizable);
+        alert.apply(a -> a.setResizable(resizable));
         return this;
     }
 
@@ -212,7 +278,7 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public AlertBuilder withStageStyle(StageStyle style) {
-        this.alert.initStyle(style);
+        alert.initStyle(style);
         return this;
     }
 
@@ -221,8 +287,10 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public AlertBuilder at(double x, double y) {
-        this.alert.setX(x);
-        this.alert.setY(y);
+        alert.apply(a -> {
+            a.setX(x);
+            a.setY(y);
+        });
         return this;
     }
 
@@ -231,8 +299,11 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public AlertBuilder withSize(double width, double height) {
-        this.alert.setWidth(width);
-        this.alert.setHeight(height);
+        alert.markSized();
+        alert.apply(a -> {
+            a.setWidth(width);
+            a.setHeight(height);
+        });
         return this;
     }
 
@@ -241,7 +312,7 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public AlertBuilder onClose(EventHandler<DialogEvent> e) {
-        this.alert.setOnCloseRequest(e);
+        alert.apply(a -> a.setOnCloseRequest(e));
         return this;
     }
 
@@ -250,7 +321,7 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public AlertBuilder onHidden(EventHandler<DialogEvent> e) {
-        this.alert.setOnHidden(e);
+        alert.apply(a -> a.setOnHidden(e));
         return this;
     }
 
@@ -259,7 +330,7 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public AlertBuilder onHiding(EventHandler<DialogEvent> e) {
-        this.alert.setOnHiding(e);
+        alert.apply(a -> a.setOnHiding(e));
         return this;
     }
 
@@ -268,7 +339,7 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public AlertBuilder onShown(EventHandler<DialogEvent> e) {
-        this.alert.setOnShown(e);
+        alert.apply(a -> a.setOnShown(e));
         return this;
     }
 
@@ -277,7 +348,7 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public AlertBuilder onShowing(EventHandler<DialogEvent> e) {
-        this.alert.setOnShowing(e);
+        alert.apply(a -> a.setOnShowing(e));
         return this;
     }
 
@@ -286,34 +357,48 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public Optional<ButtonType> showAndWait() {
-        addGlobalIconIfConfigured();
-        return this.alert.showAndWait();
+        long requestedAt = System.nanoTime();
+        Alert built = forShow();
+        return built == null ? Optional.empty() : Metrics.showing(built, requestedAt).showAndWait();
     }
 
     /**
      * Shows a non-blocking alert on the JavaFX Application thread.
+     * May be called from any thread.
      */
     public void showLater() {
-        addGlobalIconIfConfigured();
-        Platform.runLater(this.alert::show);
+        FXDispatcher.enqueue(this::show);
     }
 
     /**
-     * Shows a blocking alert on the JavaFX Application thread.
+     * Shows a blocking alert on the JavaFX Application thread. When called
+     * from another thread, blocks that thread until the alert is closed.
      * @return The {@code javafx.scene.control.ButtonType} activated by the user.
      */
     public Optional<ButtonType> showAndWaitLater() {
-        addGlobalIconIfConfigured();
-        AtomicReference<Optional<ButtonType>> buttonType = new AtomicReference<>();
-        Platform.runLater(() -> buttonType.set(this.alert.showAndWait()));
-        return buttonType.get();
+        if (Platform.isFxApplicationThread()) {
+            return showAndWait();
+        }
+        return showAsync().toCompletableFuture().join();
     }
 
-    private void addGlobalIconIfConfigured() {
-        if (alert == null) {
-            return;
-        }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<Optional<ButtonType>> showAsync() {
+        return showAsync(null);
+    }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<Optional<ButtonType>> showAsync(Executor executor) {
+        return AsyncDialogs.show(this::forShow, executor);
+    }
+
+    private void addGlobalIconIfConfigured(Alert alert) {
         Stage alertStage = ((Stage) alert.getDialogPane().getScene().getWindow());
         if (FXAlert.getIconImage() != null) {
             alertStage.getIcons().add(FXAlert.getIconImage());
@@ -327,8 +412,11 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      */
     @Override
     public void show() {
-        addGlobalIconIfConfigured();
-        this.alert.show();
+        long requestedAt = System.nanoTime();
+        Alert built = forShow();
+        if (built != null) {
+            Metrics.showing(built, requestedAt).show();
+        }
     }
 
     /**
@@ -336,8 +424,56 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
      * @return Built {@code javafx.scene.control.AlertType}
      */
     public Alert build() {
-        addGlobalIconIfConfigured();
-        return this.alert;
+        Alert built = prepared();
+        AlertPool.markEscaped(built);
+        return built;
+    }
+
+    /**
+     * Has the exception shown by this builder folded into an already open
+     * Alert for the same exception, as done by the FXAlert shortcuts.
+     * @return This builder
+     */
+    AlertBuilder aggregated() {
+        this.aggregated = throwable != null;
+        return this;
+    }
+
+    /**
+     * Returns the Alert to show, or null if this builder is aggregated and
+     * its exception was folded into an already open Alert for it.
+     */
+    private Alert forShow() {
+        if (!aggregated) {
+            return prepared();
+        }
+        return FXAlert.getExceptionAggregator().prepare(throwable, this::prepared);
+    }
+
+    /**
+     * Returns the Alert ready to be shown. A pooled Alert is handed back
+     * to the pool after it is hidden, at which point this builder forgets it.
+     */
+    private Alert prepared() {
+        Alert built = this.alert.get();
+        AlertPool.onRecycled(built, this.alert::release);
+        AlertPool.prepareForShow(built, this.alert.isSized());
+        addGlobalIconIfConfigured(built);
+        return built;
+    }
+
+    /**
+     * Returns an immutable specification of the Alert as configured by
+     * this builder. The spec may be shared between threads, and each time
+     * it is shown, a new Alert is created. Nodes passed to
+     * {@code withGraphic(Node)}, {@code withContent} or
+     * {@code withExpandableContent} are shared by all of these, so such a
+     * spec can only show one Alert at a time. Not available for builders
+     * created from an existing Alert.
+     * @return The DialogSpec
+     */
+    public DialogSpec<Alert, ButtonType> toSpec() {
+        return this.alert.toSpec();
     }
 
     /**
@@ -348,6 +484,8 @@ public class AlertBuilder implements IDialogBuilder<AlertBuilder> {
         return build();
     }
 
-    private final Alert alert;
+    private final LazyDialog<Alert, ButtonType> alert;
+    private final Throwable throwable;
+    private boolean aggregated;
 
 }
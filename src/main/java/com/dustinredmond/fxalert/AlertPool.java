@@ -0,0 +1,351 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import javafx.scene.Node;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.DialogPane;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+/**
+ * Pool of recyclable Alerts, keyed by {@code AlertType}, owner, modality,
+ * style, and stylesheets. Alerts created by {@code FXAlert.info()},
+ * {@code error()}, {@code warning()} and {@code confirm()} are borrowed
+ * from this pool and handed back once hidden, after their text, graphic,
+ * content, buttons, and handlers have been reset. An Alert obtained from
+ * {@code AlertBuilder.build()} or {@code getAlert()} is never recycled.
+ * Accessed via {@code FXAlert.getAlertPool()}, methods must be called on
+ * the JavaFX Application thread unless stated otherwise.
+ */
+public class AlertPool {
+
+    AlertPool() {
+        super();
+    }
+
+    /**
+     * Enables or disables pooling. When disabled, every
+     * Alert is newly created and none are recycled.
+     * @param enabled true to enable pooling
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    /**
+     * Returns whether pooling is enabled.
+     * @return true if pooling is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets how many idle Alerts are kept for each combination
+     * of type, owner, modality, style, and stylesheets.
+     * @param maxIdlePerKey Maximum idle Alerts per key
+     */
+    public void setMaxIdlePerKey(int maxIdlePerKey) {
+        if (maxIdlePerKey < 0) {
+            throw new IllegalArgumentException("maxIdlePerKey must not be negative");
+        }
+        this.maxIdlePerKey = maxIdlePerKey;
+        for (Deque<Alert> alerts : idle.values()) {
+            while (alerts.size() > maxIdlePerKey) {
+                alerts.pollFirst();
+            }
+        }
+    }
+
+    /**
+     * Returns how many idle Alerts are kept per key.
+     * @return Maximum idle Alerts per key
+     */
+    public int getMaxIdlePerKey() {
+        return maxIdlePerKey;
+    }
+
+    /**
+     * Returns the number of idle Alerts held by the pool.
+     * @return Number of idle Alerts
+     */
+    public int getIdleCount() {
+        int count = 0;
+        for (Deque<Alert> alerts : idle.values()) {
+            count += alerts.size();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of Alerts served from the pool.
+     * Safe to call from any thread.
+     * @return Number of pool hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of Alerts that had to be created.
+     * Safe to call from any thread.
+     * @return Number of pool misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the fraction of Alerts served from the pool.
+     * Safe to call from any thread.
+     * @return Hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * Discards all idle Alerts.
+     */
+    public void clear() {
+        idle.clear();
+    }
+
+    /**
+     * Takes an idle Alert matching the type and init properties,
+     * creating one if none are available.
+     * @param type The AlertType
+     * @param init Owner, modality, style, and stylesheets
+     * @return An Alert in its default state
+     */
+    Alert borrow(AlertType type, DialogInit init) {
+        Key key = new Key(type, init);
+        Deque<Alert> alerts = idle.get(key);
+        Alert alert = alerts == null ? null : alerts.pollLast();
+        if (alert != null) {
+            hits.increment();
+            alert.getDialogPane().getProperties().put(REUSED, Boolean.TRUE);
+            return alert;
+        }
+        misses.increment();
+        return create(key);
+    }
+
+    /**
+     * Registers a callback run when the Alert is handed back
+     * to the pool, so its builder can stop referring to it.
+     * @param alert A pooled Alert
+     * @param onRecycled Run once the Alert is back in the pool
+     */
+    static void onRecycled(Alert alert, Runnable onRecycled) {
+        if (isRecyclable(alert)) {
+            alert.getDialogPane().getProperties().put(ON_RECYCLED, onRecycled);
+        }
+    }
+
+    /**
+     * Returns whether the Alert was borrowed from a pool
+     * and will be handed back to it once hidden.
+     * @param alert An Alert
+     * @return true unless the Alert is not pooled or has escaped
+     */
+    static boolean isRecyclable(Alert alert) {
+        return alert.getDialogPane().getProperties().containsKey(KEY);
+    }
+
+    /**
+     * Excludes the Alert from recycling, as it has been
+     * handed to code outside of FXAlert.
+     * @param alert A possibly pooled Alert
+     */
+    static void markEscaped(Alert alert) {
+        alert.getDialogPane().getProperties().remove(KEY);
+    }
+
+    /**
+     * Resizes a reused dialog to fit its new content. JavaFX only sizes
+     * a dialog to its scene if its size was never set, which is no longer
+     * the case once the dialog has been shown.
+     * @param dialog A possibly pooled dialog, about to be shown
+     * @param explicitSize true if the dialog's size was configured
+     */
+    static void prepareForShow(Dialog<?> dialog, boolean explicitSize) {
+        DialogPane pane = dialog.getDialogPane();
+        if (pane.getProperties().remove(REUSED) != null && !explicitSize) {
+            pane.getScene().getWindow().sizeToScene();
+        }
+    }
+
+    private Alert create(Key key) {
+        Alert alert = key.init.applyTo(new Alert(key.type));
+        DialogPane pane = alert.getDialogPane();
+        pane.getProperties().put(KEY, key);
+        pane.getProperties().put(DEFAULTS, new Defaults(alert));
+        alert.showingProperty().addListener((ov, wasShowing, showing) -> {
+            if (!showing) {
+                // recycle once the result has been read and hidden handlers have run
+                FXDispatcher.enqueue(() -> recycle(alert));
+            }
+        });
+        return alert;
+    }
+
+    private void recycle(Alert alert) {
+        Map<Object, Object> properties = alert.getDialogPane().getProperties();
+        Key key = (Key) properties.get(KEY);
+        Runnable onRecycled = (Runnable) properties.remove(ON_RECYCLED);
+        Window owner = key == null ? null : key.init.getOwner();
+        if (key == null || !enabled || (owner != null && !owner.isShowing())) {
+            return;
+        }
+        Deque<Alert> alerts = idle.computeIfAbsent(key, k -> new ArrayDeque<>());
+        if (alerts.size() >= maxIdlePerKey) {
+            return;
+        }
+        ((Defaults) properties.get(DEFAULTS)).restore(alert);
+        alerts.addLast(alert);
+        if (onRecycled != null) {
+            onRecycled.run();
+        }
+        purgeClosedOwners();
+    }
+
+    private void purgeClosedOwners() {
+        Iterator<Key> it = idle.keySet().iterator();
+        while (it.hasNext()) {
+            Window owner = it.next().init.getOwner();
+            if (owner != null && !owner.isShowing()) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * State of a newly created Alert, restored when it is recycled.
+     */
+    private static final class Defaults {
+
+        private Defaults(Alert alert) {
+            this.title = alert.getTitle();
+            this.headerText = alert.getHeaderText();
+            this.contentText = alert.getContentText();
+            this.graphic = alert.getDialogPane().getGraphic();
+            this.buttonTypes = new ArrayList<>(alert.getButtonTypes());
+            this.resizable = alert.isResizable();
+            this.x = alert.getX();
+            this.y = alert.getY();
+            this.width = alert.getWidth();
+            this.height = alert.getHeight();
+        }
+
+        private void restore(Alert alert) {
+            DialogPane pane = alert.getDialogPane();
+            alert.setTitle(title);
+            alert.setHeaderText(headerText);
+            alert.setContentText(contentText);
+            pane.setGraphic(graphic);
+            pane.setContent(null);
+            pane.setExpandableContent(null);
+            pane.setExpanded(false);
+            pane.setStyle(null);
+            alert.getButtonTypes().setAll(buttonTypes);
+            alert.setResizable(resizable);
+            alert.setOnCloseRequest(null);
+            alert.setOnShowing(null);
+            alert.setOnShown(null);
+            alert.setOnHiding(null);
+            alert.setOnHidden(null);
+            alert.setResult(null);
+            // NaN leaves the position to the dialog, centered on its owner
+            alert.setX(x);
+            alert.setY(y);
+            Stage stage = (Stage) pane.getScene().getWindow();
+            if (Double.isNaN(width) || Double.isNaN(height)) {
+                stage.sizeToScene();
+            } else {
+                alert.setWidth(width);
+                alert.setHeight(height);
+            }
+            stage.getIcons().clear();
+        }
+
+        private final String title;
+        private final String headerText;
+        private final String contentText;
+        private final Node graphic;
+        private final List<ButtonType> buttonTypes;
+        private final boolean resizable;
+        private final double x;
+        private final double y;
+        private final double width;
+        private final double height;
+    }
+
+    private static final class Key {
+
+        private Key(AlertType type, DialogInit init) {
+            this.type = type;
+            this.init = init;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return type == other.type && init.equals(other.init);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, init);
+        }
+
+        private final AlertType type;
+        private final DialogInit init;
+    }
+
+    private static final String KEY = "fxalert.pool.key";
+    private static final String DEFAULTS = "fxalert.pool.defaults";
+    private static final String ON_RECYCLED = "fxalert.pool.onRecycled";
+    private static final String REUSED = "fxalert.pool.reused";
+    private final Map<Key, Deque<Alert>> idle = new HashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile boolean enabled = true;
+    private int maxIdlePerKey = 4;
+
+}
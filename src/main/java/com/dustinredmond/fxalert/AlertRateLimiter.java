@@ -0,0 +1,59 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import javafx.scene.control.Alert.AlertType;
+
+/**
+ * Decides whether one of the {@code FXAlert.showInfo/showWarning/showError}
+ * shortcuts may show an Alert. Set via {@code FXAlert.setRateLimiter()}.
+ * Implementations must be thread-safe.
+ * @see TokenBucketRateLimiter
+ */
+public interface AlertRateLimiter {
+
+    /**
+     * What happens to calls exceeding the rate limit.
+     */
+    enum ExcessPolicy {
+        /** The Alert is silently discarded */
+        DROP,
+        /** The Alert is discarded and later reported in a single
+         * "N more errors suppressed" Alert */
+        SUMMARIZE,
+        /** The calling thread waits until the Alert may be shown.
+         * On the JavaFX Application thread, behaves like {@code SUMMARIZE} */
+        BLOCK
+    }
+
+    /**
+     * Attempts to take a permit for showing an Alert.
+     * @param type The Alert's type
+     * @param key Identifies the call site requesting the Alert
+     * @return true if the Alert may be shown
+     */
+    boolean tryAcquire(AlertType type, String key);
+
+    /**
+     * Returns how long until a permit for the given
+     * type and key is expected to become available.
+     * @param type The Alert's type
+     * @param key Identifies the call site requesting the Alert
+     * @return Wait time in nanoseconds, 0 if available now
+     */
+    long nanosUntilAvailable(AlertType type, String key);
+}
@@ -0,0 +1,179 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.scene.control.Alert.AlertType;
+import javafx.util.Duration;
+
+/**
+ * Applies the configured {@code AlertRateLimiter} and
+ * {@code ExcessPolicy} to the FXAlert {@code show*} shortcuts,
+ * and counts the Alerts it suppressed.
+ */
+final class AlertThrottle {
+
+    AlertThrottle() {
+        int types = AlertType.values().length;
+        suppressed = new LongAdder[types];
+        pendingSummary = new AtomicInteger[types];
+        for (int i = 0; i < types; i++) {
+            suppressed[i] = new LongAdder();
+            pendingSummary[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Decides whether an Alert of the given type may be shown,
+     * blocking the caller or scheduling a summary Alert as
+     * required by the excess policy.
+     * @param type The Alert's type
+     * @return true if the Alert should be shown
+     */
+    boolean permit(AlertType type) {
+        AlertRateLimiter limiter = this.limiter;
+        if (limiter == null) {
+            return true;
+        }
+        String key = callSite();
+        if (limiter.tryAcquire(type, key)) {
+            return true;
+        }
+        AlertRateLimiter.ExcessPolicy policy = this.policy;
+        if (policy == AlertRateLimiter.ExcessPolicy.BLOCK && !Platform.isFxApplicationThread()) {
+            if (await(limiter, type, key)) {
+                return true;
+            }
+        }
+        suppressed[type.ordinal()].increment();
+        Metrics.suppressed(type.name(), DialogMetricsListener.Suppression.RATE_LIMITED);
+        if (policy != AlertRateLimiter.ExcessPolicy.DROP) {
+            summarize(limiter, type, key);
+        }
+        return false;
+    }
+
+    /**
+     * Parks the calling thread until a permit is available.
+     * @return false if the thread was interrupted while waiting
+     */
+    private boolean await(AlertRateLimiter limiter, AlertType type, String key) {
+        do {
+            LockSupport.parkNanos(Math.max(limiter.nanosUntilAvailable(type, key), MIN_WAIT_NANOS));
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+        } while (!limiter.tryAcquire(type, key));
+        return true;
+    }
+
+    /**
+     * Counts a suppressed Alert towards the next summary Alert,
+     * scheduling that summary if this is the first suppression.
+     */
+    private void summarize(AlertRateLimiter limiter, AlertType type, String key) {
+        AtomicInteger pending = pendingSummary[type.ordinal()];
+        if (pending.getAndIncrement() != 0) {
+            return;
+        }
+        double delayMillis = Math.max(limiter.nanosUntilAvailable(type, key), SUMMARY_DELAY_NANOS) / 1_000_000d;
+        FXDispatcher.enqueue(() -> {
+            PauseTransition delay = new PauseTransition(Duration.millis(delayMillis));
+            delay.setOnFinished(e -> {
+                int count = pending.getAndSet(0);
+                new AlertBuilder(type)
+                    .withText(String.format("%d more %s suppressed", count, noun(type, count)))
+                    .show();
+            });
+            delay.play();
+        });
+    }
+
+    private static String noun(AlertType type, int count) {
+        String noun;
+        switch (type) {
+            case ERROR:
+                noun = "error";
+                break;
+            case WARNING:
+                noun = "warning";
+                break;
+            default:
+                noun = "message";
+                break;
+        }
+        return count == 1 ? noun + " was" : noun + "s were";
+    }
+
+    /**
+     * Identifies the first caller outside of FXAlert.
+     * @return The caller's class, method, and line number
+     */
+    private static String callSite() {
+        return StackWalker.getInstance().walk(frames -> frames
+            .filter(f -> !INTERNAL_CLASSES.contains(f.getClassName()))
+            .findFirst()
+            .map(f -> f.getClassName() + "#" + f.getMethodName() + ":" + f.getLineNumber())
+            .orElse(""));
+    }
+
+    void setLimiter(AlertRateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    AlertRateLimiter getLimiter() {
+        return limiter;
+    }
+
+    void setPolicy(AlertRateLimiter.ExcessPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("policy must not be null");
+        }
+        this.policy = policy;
+    }
+
+    AlertRateLimiter.ExcessPolicy getPolicy() {
+        return policy;
+    }
+
+    long getSuppressedCount(AlertType type) {
+        return suppressed[type.ordinal()].sum();
+    }
+
+    long getSuppressedCount() {
+        long total = 0;
+        for (LongAdder count : suppressed) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    private static final long MIN_WAIT_NANOS = 1_000_000L;
+    private static final long SUMMARY_DELAY_NANOS = 1_000_000_000L;
+    private static final Set<String> INTERNAL_CLASSES = Set.of(
+        FXAlert.class.getName(), AlertThrottle.class.getName());
+    private final LongAdder[] suppressed;
+    private final AtomicInteger[] pendingSummary;
+    private volatile AlertRateLimiter limiter;
+    private volatile AlertRateLimiter.ExcessPolicy policy = AlertRateLimiter.ExcessPolicy.SUMMARIZE;
+
+}
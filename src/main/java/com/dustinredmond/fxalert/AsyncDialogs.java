@@ -0,0 +1,79 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.Dialog;
+
+/**
+ * Shows dialogs without entering a nested event loop, completing
+ * a {@code CompletionStage} with the result once the dialog is hidden.
+ */
+final class AsyncDialogs {
+
+    private AsyncDialogs() {
+        super();
+    }
+
+    /**
+     * Shows the dialog on the JavaFX Application thread. May be called
+     * from any thread.
+     * @param supplier Supplies the dialog to show, called on the JavaFX Application thread.
+     *                 If it supplies null, the returned stage completes with an empty result
+     * @param executor Executor completing the returned stage,
+     *                 or null to complete it on the JavaFX Application thread
+     * @param <R> The dialog's result type
+     * @return Stage completed with the dialog's result when it is hidden,
+     *         which callers cannot complete themselves
+     */
+    static <R> CompletionStage<Optional<R>> show(Supplier<? extends Dialog<R>> supplier, Executor executor) {
+        CompletableFuture<Optional<R>> result = new CompletableFuture<>();
+        long requestedAt = System.nanoTime();
+        FXDispatcher.execute(() -> {
+            try {
+                Dialog<R> dialog = supplier.get();
+                if (dialog == null) {
+                    result.complete(Optional.empty());
+                    return;
+                }
+                dialog.showingProperty().addListener(new ChangeListener<Boolean>() {
+                    @Override
+                    public void changed(ObservableValue<? extends Boolean> ov, Boolean wasShowing, Boolean showing) {
+                        if (!showing) {
+                            dialog.showingProperty().removeListener(this);
+                            result.complete(Optional.ofNullable(dialog.getResult()));
+                        }
+                    }
+                });
+                Metrics.showing(dialog, requestedAt).show();
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        CompletableFuture<Optional<R>> completed = executor == null
+            ? result : result.thenApplyAsync(Function.identity(), executor);
+        return completed.minimalCompletionStage();
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import javafx.animation.PauseTransition;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.scene.control.TextInputDialog;
+import javafx.util.Duration;
+
+/**
+ * Validates a TextInputDialog's text with an asynchronous validator,
+ * keeping OK disabled until the validator has accepted the current text.
+ * Keystrokes are debounced, a validation superseded by newer text is
+ * cancelled and its result ignored, and recent results are cached so
+ * that returning to earlier text needs no new validation.
+ * Must be used on the JavaFX Application thread.
+ */
+final class AsyncValidation {
+
+    private AsyncValidation(Function<String, ? extends CompletionStage<Boolean>> validator, Duration debounce) {
+        this.validator = validator;
+        this.debounce = new PauseTransition(debounce);
+    }
+
+    /**
+     * Validates the dialog's text as it is edited.
+     * @param dialog The dialog
+     * @param validator Completes with true if the text is valid
+     * @param debounce How long the text must stay unchanged before validating
+     */
+    static void install(TextInputDialog dialog, Function<String, ? extends CompletionStage<Boolean>> validator,
+                        Duration debounce) {
+        AsyncValidation validation = new AsyncValidation(validator, debounce);
+        OkGate.of(dialog).require(AsyncValidation.class, validation.valid);
+        dialog.getEditor().textProperty().addListener((obs, oldText, text) -> validation.textChanged(text));
+        dialog.showingProperty().addListener((obs, wasShowing, showing) -> {
+            if (!showing) {
+                validation.cancel();
+            } else if (!validation.valid.get() && validation.pending == null) {
+                validation.textChanged(dialog.getEditor().getText());
+            }
+        });
+        validation.textChanged(dialog.getEditor().getText());
+    }
+
+    private void textChanged(String text) {
+        cancel();
+        Boolean cached = results.get(text);
+        if (cached != null) {
+            valid.set(cached);
+            return;
+        }
+        valid.set(false);
+        if (debounce.getDuration().lessThanOrEqualTo(Duration.ZERO)) {
+            validate(text);
+        } else {
+            debounce.setOnFinished(e -> validate(text));
+            debounce.playFromStart();
+        }
+    }
+
+    private void validate(String text) {
+        CompletionStage<Boolean> stage = validator.apply(text);
+        pending = stage;
+        stage.whenComplete((result, error) -> FXDispatcher.execute(() -> {
+            if (pending != stage) {
+                return;
+            }
+            pending = null;
+            // failed validations are not cached, so the text is retried after the next edit
+            if (error == null) {
+                results.put(text, Boolean.TRUE.equals(result));
+                valid.set(Boolean.TRUE.equals(result));
+            }
+        }));
+    }
+
+    private void cancel() {
+        debounce.stop();
+        CompletionStage<Boolean> superseded = pending;
+        pending = null;
+        if (superseded != null) {
+            try {
+                superseded.toCompletableFuture().cancel(true);
+            } catch (UnsupportedOperationException e) {
+                // the stage cannot be cancelled, its result is ignored
+            }
+        }
+    }
+
+    private static final int MAX_CACHED_RESULTS = 128;
+    private final Function<String, ? extends CompletionStage<Boolean>> validator;
+    private final PauseTransition debounce;
+    private final BooleanProperty valid = new SimpleBooleanProperty();
+    private final Map<String, Boolean> results = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_CACHED_RESULTS;
+        }
+    };
+    private CompletionStage<Boolean> pending;
+
+}
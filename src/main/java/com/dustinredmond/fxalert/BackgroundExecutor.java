@@ -0,0 +1,81 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared pool of daemon threads for work that must stay off the
+ * JavaFX Application thread, such as formatting stack traces.
+ * Results are handed back to the JavaFX Application thread via
+ * {@code FXDispatcher}. Idle threads exit after a short timeout.
+ */
+final class BackgroundExecutor {
+
+    private BackgroundExecutor() {
+        super();
+    }
+
+    /**
+     * Runs the task on a background thread.
+     * @param task The task to run
+     */
+    static void execute(Runnable task) {
+        EXECUTOR.execute(task);
+    }
+
+    /**
+     * Runs the task on a background thread.
+     * @param task The task to run
+     * @return Future allowing the task to be cancelled
+     */
+    static Future<?> submit(Runnable task) {
+        return EXECUTOR.submit(task);
+    }
+
+    /**
+     * Returns the shared background Executor.
+     * @return The Executor
+     */
+    static Executor get() {
+        return EXECUTOR;
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "fxalert-background-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final int THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(THREADS, THREADS,
+        10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory());
+
+    static {
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+}
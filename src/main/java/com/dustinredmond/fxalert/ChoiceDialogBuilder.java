@@ -16,7 +16,14 @@ package com.dustinredmond.fxalert;
  *  limitations under the License.
  */
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import javafx.event.EventHandler;
 import javafx.scene.Node;
 import javafx.scene.control.ButtonType;
@@ -38,9 +45,8 @@ public class ChoiceDialogBuilder implements IDialogBuilder<ChoiceDialogBuilder>
      * @param choices Choices for user to choose from
      */
     public ChoiceDialogBuilder(String... choices) {
-        dialog = new ChoiceDialog<>();
-        dialog.getItems().addAll(choices);
-        dialog.setSelectedItem(dialog.getItems().get(0));
+        this();
+        selectFirst(choices);
     }
 
     /**
@@ -48,7 +54,33 @@ public class ChoiceDialogBuilder implements IDialogBuilder<ChoiceDialogBuilder>
      * Call @{code withChoices(String... choices)}
      */
     public ChoiceDialogBuilder() {
-        dialog = new ChoiceDialog<>();
+        dialog = new LazyDialog<>(ChoiceDialog::new, false);
+    }
+
+    private ChoiceDialogBuilder(LazyDialog<ChoiceDialog<String>, String> dialog) {
+        this.dialog = dialog;
+    }
+
+    /**
+     * Creates a ChoiceDialogBuilder that only records its configuration.
+     * The ChoiceDialog is created when it is first shown or built, so,
+     * until then, the builder may be used from any thread. See {@code toSpec()}.
+     * @param choices Choices for user to choose from
+     * @return ChoiceDialogBuilder API
+     */
+    public static ChoiceDialogBuilder lazy(String... choices) {
+        ChoiceDialogBuilder builder = new ChoiceDialogBuilder(new LazyDialog<>(ChoiceDialog::new, true));
+        builder.selectFirst(choices);
+        return builder;
+    }
+
+    private void selectFirst(String... choices) {
+        dialog.apply(d -> {
+            d.getItems().addAll(choices);
+            if (!d.getItems().isEmpty()) {
+                d.setSelectedItem(d.getItems().get(0));
+            }
+        });
     }
 
     /**
@@ -58,19 +90,81 @@ public class ChoiceDialogBuilder implements IDialogBuilder<ChoiceDialogBuilder>
      * @return The ChoiceDialogBuilder
      */
     public ChoiceDialogBuilder withChoices(String... choices) {
-        dialog.getItems().clear();
-        dialog.getItems().addAll(choices);
+        dialog.apply(d -> {
+            d.getItems().clear();
+            d.getItems().addAll(choices);
+        });
         return this;
     }
 
+    /**
+     * Shows the choices in a virtualized, filterable list instead of
+     * a drop-down, for lists of many thousands of choices. Typing
+     * filters the list by prefix, or, from three characters on, by
+     * substring, using an index built on a background thread.
+     * @param choices Choices for user to choose from
+     * @return The ChoiceDialogBuilder
+     */
+    public ChoiceDialogBuilder withLargeChoices(String... choices) {
+        String[] copy = choices.clone();
+        CompletableFuture<ChoiceIndex> index = CompletableFuture.supplyAsync(
+            () -> new ChoiceIndex(copy), BackgroundExecutor.get());
+        dialog.apply(d -> new LargeChoicePane(copy, index).install(d));
+        return this;
+    }
+
+    /**
+     * Shows choices loaded lazily from a {@code ChoiceSource} in a
+     * virtualized, filterable list. Pages are loaded in the background
+     * as the user scrolls, and the source is searched as the user types.
+     * @param source The source of the choices
+     * @return The ChoiceDialogBuilder
+     */
+    public ChoiceDialogBuilder withChoiceSource(ChoiceSource<String> source) {
+        if (source == null) {
+            throw new IllegalArgumentException("source must not be null");
+        }
+        dialog.apply(d -> new SourceChoicePane(source).install(d));
+        return this;
+    }
+
+    /**
+     * Shows choices of any type loaded lazily from a {@code ChoiceSource},
+     * as the text given by the converter, which is also the dialog's
+     * result. See {@code withChoiceSource(ChoiceSource)}.
+     * @param source The source of the choices
+     * @param converter Converts a choice to its text, called on background threads
+     * @param <T> The type of the choices
+     * @return The ChoiceDialogBuilder
+     */
+    public <T> ChoiceDialogBuilder withChoiceSource(ChoiceSource<T> source, Function<? super T, String> converter) {
+        if (source == null || converter == null) {
+            throw new IllegalArgumentException("source and converter must not be null");
+        }
+        return withChoiceSource(new ConvertedChoiceSource<>(source, converter));
+    }
+
+    /**
+     * Shows the choices in a virtualized, filterable list ranked by
+     * fuzzy matching, so that "jpmcs" finds "JPMorgan Chase".
+     * See {@code FuzzyChoiceSource}.
+     * @param choices Choices for user to choose from
+     * @return The ChoiceDialogBuilder
+     */
+    public ChoiceDialogBuilder withFuzzyChoices(String... choices) {
+        return withChoiceSource(new FuzzyChoiceSource(choices));
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public ChoiceDialogBuilder withText(String title, String header, String content) {
-        dialog.setTitle(title);
-        dialog.setHeaderText(header);
-        dialog.setContentText(content);
+        dialog.apply(d -> {
+            d.setTitle(title);
+            d.setHeaderText(header);
+            d.setContentText(content);
+        });
         return this;
     }
 
@@ -79,13 +173,13 @@ public class ChoiceDialogBuilder implements IDialogBuilder<ChoiceDialogBuilder>
      */
     @Override
     public ChoiceDialogBuilder withStyle(String style) {
-        dialog.getDialogPane().setStyle(style);
+        dialog.apply(d -> d.getDialogPane().setStyle(style));
         return this;
     }
 
     @Override
     public ChoiceDialogBuilder withStylesheet(String url) {
-        dialog.getDialogPane().getStylesheets().add(url);
+        dialog.addStylesheet(url);
         return this;
     }
 
@@ -94,7 +188,7 @@ public class ChoiceDialogBuilder implements IDialogBuilder<ChoiceDialogBuilder>
      */
     @Override
     public ChoiceDialogBuilder withTitleBarIcon(Image image) {
-        ((Stage) dialog.getDialogPane().getScene().getWindow()).getIcons().add(image);
+        dialog.apply(d -> ((Stage) d.getDialogPane().getScene().getWindow()).getIcons().add(image));
         return this;
     }
 
@@ -103,7 +197,16 @@ public class ChoiceDialogBuilder implements IDialogBuilder<ChoiceDialogBuilder>
      */
     @Override
     public ChoiceDialogBuilder withGraphic(Node graphic) {
-        dialog.setGraphic(graphic);
+        dialog.apply(d -> d.setGraphic(graphic));
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ChoiceDialogBuilder withGraphic(Supplier<? extends Node> graphic) {
+        dialog.apply(d -> d.setGraphic(graphic.get()));
         return this;
     }
 
@@ -112,8 +215,10 @@ public class ChoiceDialogBuilder implements IDialogBuilder<ChoiceDialogBuilder>
      */
     @Override
     public ChoiceDialogBuilder withButtonTypes(ButtonType... buttonTypes) {
-        dialog.getDialogPane().getButtonTypes().clear();
-        dialog.getDialogPane().getButtonTypes().addAll(buttonTypes);
+        dialog.apply(d -> {
+            d.getDialogPane().getButtonTypes().clear();
+            d.getDialogPane().getButtonTypes().addAll(buttonTypes);
+        });
         return this;
     }
 
@@ -140,7 +245,7 @@ public class ChoiceDialogBuilder implements IDialogBuilder<ChoiceDialogBuilder>
      */
     @Override
     public ChoiceDialogBuilder withContent(Node content) {
-        dialog.getDialogPane().setContent(content);
+        dialog.apply(d -> d.getDialogPane().setContent(content));
         return this;
     }
 
@@ -149,8 +254,10 @@ public class ChoiceDialogBuilder implements IDialogBuilder<ChoiceDialogBuilder>
      */
     @Override
     public ChoiceDialogBuilder withExpandableContent(Node content, boolean expanded) {
-        dialog.getDialogPane().setExpandableContent(content);
-        dialog.getDialogPane().setExpanded(expanded);
+        dialog.apply(d -> {
+            d.getDialogPane().setExpandableContent(content);
+            d.getDialogPane().setExpanded(expanded);
+        });
         return this;
     }
 
@@ -159,7 +266,7 @@ public class ChoiceDialogBuilder implements IDialogBuilder<ChoiceDialogBuilder>
      */
     @Override
     public ChoiceDialogBuilder resizable(boolean resizable) {
-        dialog.setResizable(resizable);
+        dialog.apply(d -> d.setResizable(resizable));
         return this;
     }
 
@@ -177,8 +284,10 @@ public class ChoiceDialogBuilder implements IDialogBuilder<ChoiceDialogBuilder>
      */
     @Override
     public ChoiceDialogBuilder at(double x, double y) {
-        dialog.setX(x);
-        dialog.setY(y);
+        dialog.apply(d -> {
+            d.setX(x);
+            d.setY(y);
+        });
         return this;
     }
 
@@ -187,8 +296,11 @@ public class ChoiceDialogBuilder implements IDialogBuilder<ChoiceDialogBuilder>
      */
     @Override
     public ChoiceDialogBuilder withSize(double width, double height) {
-        dialog.setWidth(width);
-        dialog.setHeight(height);
+        dialog.markSized();
+        dialog.apply(d -> {
+            d.setWidth(width);
+            d.setHeight(height);
+        });
         return this;
     }
 
@@ -197,7 +309,7 @@ public class ChoiceDialogBuilder implements IDialogBuilder<ChoiceDialogBuilder>
      */
     @Override
     public ChoiceDialogBuilder onClose(EventHandler<DialogEvent> e) {
-        dialog.setOnCloseRequest(e);
+        dialog.apply(d -> d.setOnCloseRequest(e));
         return this;
     }
 
@@ -206,7 +318,7 @@ public class ChoiceDialogBuilder implements IDialogBuilder<ChoiceDialogBuilder>
      */
     @Override
     public ChoiceDialogBuilder onHidden(EventHandler<DialogEvent> e) {
-        dialog.setOnHidden(e);
+        dialog.apply(d -> d.setOnHidden(e));
         return this;
     }
 
@@ -215,7 +327,7 @@ public class ChoiceDialogBuilder implements IDialogBuilder<ChoiceDialogBuilder>
      */
     @Override
     public ChoiceDialogBuilder onHiding(EventHandler<DialogEvent> e) {
-        dialog.setOnHiding(e);
+        dialog.apply(d -> d.setOnHiding(e));
         return this;
     }
 
@@ -224,7 +336,7 @@ public class ChoiceDialogBuilder implements IDialogBuilder<ChoiceDialogBuilder>
      */
     @Override
     public ChoiceDialogBuilder onShown(EventHandler<DialogEvent> e) {
-        dialog.setOnShown(e);
+        dialog.apply(d -> d.setOnShown(e));
         return this;
     }
 
@@ -233,7 +345,7 @@ public class ChoiceDialogBuilder implements IDialogBuilder<ChoiceDialogBuilder>
      */
     @Override
     public ChoiceDialogBuilder onShowing(EventHandler<DialogEvent> e) {
-        dialog.setOnShowing(e);
+        dialog.apply(d -> d.setOnShowing(e));
         return this;
     }
 
@@ -242,7 +354,8 @@ public class ChoiceDialogBuilder implements IDialogBuilder<ChoiceDialogBuilder>
      */
     @Override
     public Optional<String> showAndWait() {
-        return dialog.showAndWait();
+        long requestedAt = System.nanoTime();
+        return Metrics.showing(dialog.get(), requestedAt).showAndWait();
     }
 
     /**
@@ -253,6 +366,80 @@ public class ChoiceDialogBuilder implements IDialogBuilder<ChoiceDialogBuilder>
         showAndWait();
     }
 
-    private final ChoiceDialog<String> dialog;
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<Optional<String>> showAsync() {
+        return showAsync(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<Optional<String>> showAsync(Executor executor) {
+        return AsyncDialogs.show(dialog::get, executor);
+    }
+
+    /**
+     * Returns the dialog, as constructed by the builder.
+     * @return The ChoiceDialog
+     */
+    public ChoiceDialog<String> build() {
+        return dialog.get();
+    }
+
+    /**
+     * Returns an immutable specification of the dialog as configured by
+     * this builder. The spec may be shared between threads, and each time
+     * it is shown, a new ChoiceDialog is created. Nodes passed to
+     * {@code withGraphic(Node)}, {@code withContent} or
+     * {@code withExpandableContent} are shared by all of these, so such a
+     * spec can only show one ChoiceDialog at a time.
+     * @return The DialogSpec
+     */
+    public DialogSpec<ChoiceDialog<String>, String> toSpec() {
+        return dialog.toSpec();
+    }
+
+    /**
+     * ChoiceSource converting the choices of another source to text.
+     */
+    private static final class ConvertedChoiceSource<T> implements ChoiceSource<String> {
+
+        private ConvertedChoiceSource(ChoiceSource<T> source, Function<? super T, String> converter) {
+            this.source = source;
+            this.converter = converter;
+        }
+
+        @Override
+        public int count() {
+            return source.count();
+        }
+
+        @Override
+        public List<String> page(int offset, int limit) {
+            return convert(source.page(offset, limit));
+        }
+
+        @Override
+        public List<String> search(String query, int limit) {
+            return convert(source.search(query, limit));
+        }
+
+        private List<String> convert(List<T> choices) {
+            List<String> converted = new ArrayList<>(choices.size());
+            for (T choice : choices) {
+                converted.add(converter.apply(choice));
+            }
+            return converted;
+        }
+
+        private final ChoiceSource<T> source;
+        private final Function<? super T, String> converter;
+    }
+
+    private final LazyDialog<ChoiceDialog<String>, String> dialog;
 
 }
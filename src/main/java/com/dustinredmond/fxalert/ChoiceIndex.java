@@ -0,0 +1,306 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable search index over a large array of choices. Queries of
+ * three or more characters are answered from a trigram index, shorter
+ * queries from an index of item prefixes. Posting lists of ascending
+ * item indices share one primitive int array.
+ * Building the index is expensive, so it is done on a background thread.
+ */
+final class ChoiceIndex {
+
+    ChoiceIndex(String[] items) {
+        this.items = items;
+        this.positions = new HashMap<>(items.length * 4 / 3 + 1);
+        for (int i = 0; i < items.length; i++) {
+            positions.putIfAbsent(items[i], i);
+        }
+        buildPostings();
+    }
+
+    /**
+     * Returns the number of items.
+     * @return Number of items
+     */
+    int size() {
+        return items.length;
+    }
+
+    /**
+     * Returns the item at the given index.
+     * @param index Index of the item
+     * @return The item
+     */
+    String get(int index) {
+        return items[index];
+    }
+
+    /**
+     * Returns the index of the first occurrence of an item.
+     * @param item The item
+     * @return Index of the item, or -1 if not present
+     */
+    int indexOf(String item) {
+        Integer index = positions.get(item);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Finds the items matching a query, ignoring case. Queries shorter
+     * than three characters match item prefixes, longer ones substrings.
+     * @param query The query
+     * @return Ascending indices of matching items, or null if the query
+     * is empty and all items match
+     */
+    int[] filter(String query) {
+        if (query.isEmpty()) {
+            return null;
+        }
+        if (query.length() < GRAM) {
+            int slot = grams.get(prefix(query, query.length()));
+            return slot < 0 ? EMPTY : Arrays.copyOfRange(postings, offsets[slot], offsets[slot + 1]);
+        }
+        int count = query.length() - GRAM + 1;
+        int[] slots = new int[count];
+        for (int i = 0; i < count; i++) {
+            slots[i] = grams.get(trigram(query, i));
+            if (slots[i] < 0) {
+                return EMPTY;
+            }
+        }
+        int shortest = 0;
+        for (int i = 1; i < count; i++) {
+            if (postingsLength(slots[i]) < postingsLength(slots[shortest])) {
+                shortest = i;
+            }
+        }
+        int from = offsets[slots[shortest]];
+        int[] candidates = Arrays.copyOfRange(postings, from, offsets[slots[shortest] + 1]);
+        int size = candidates.length;
+        for (int i = 0; i < count && size > 0; i++) {
+            if (slots[i] != slots[shortest]) {
+                size = intersect(candidates, size, slots[i]);
+            }
+        }
+        if (count == 1) {
+            return candidates;
+        }
+        // all trigrams matched, but not necessarily adjacent and in order
+        char[] lower = toLowerCase(query);
+        int found = 0;
+        for (int i = 0; i < size; i++) {
+            if (containsIgnoreCase(items[candidates[i]], lower)) {
+                candidates[found++] = candidates[i];
+            }
+        }
+        return Arrays.copyOf(candidates, found);
+    }
+
+    private int postingsLength(int slot) {
+        return offsets[slot + 1] - offsets[slot];
+    }
+
+    /**
+     * Keeps the first {@code size} candidates that are
+     * also in the posting list of the given slot.
+     * @return The number of candidates kept
+     */
+    private int intersect(int[] candidates, int size, int slot) {
+        int j = offsets[slot];
+        int end = offsets[slot + 1];
+        int n = 0;
+        for (int i = 0; i < size && j < end; ) {
+            if (candidates[i] < postings[j]) {
+                i++;
+            } else if (candidates[i] > postings[j]) {
+                j++;
+            } else {
+                candidates[n++] = candidates[i];
+                i++;
+                j++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Lowers each character of a string the way the index keys are
+     * lowered, independent of the default locale: under a Turkish locale
+     * {@code String.toLowerCase()} turns "I" into a dotless i.
+     */
+    static char[] toLowerCase(String s) {
+        char[] lower = s.toCharArray();
+        for (int i = 0; i < lower.length; i++) {
+            lower[i] = Character.toLowerCase(lower[i]);
+        }
+        return lower;
+    }
+
+    private static boolean containsIgnoreCase(String s, char[] lower) {
+        int last = s.length() - lower.length;
+        char first = lower[0];
+        for (int i = 0; i <= last; i++) {
+            if (Character.toLowerCase(s.charAt(i)) != first) {
+                continue;
+            }
+            int k = 1;
+            while (k < lower.length && Character.toLowerCase(s.charAt(i + k)) == lower[k]) {
+                k++;
+            }
+            if (k == lower.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the posting lists of the trigrams and one and two character
+     * prefixes of each item in two passes, counting, then filling a
+     * single array, so no per-list objects are created.
+     */
+    private void buildPostings() {
+        int[] lastItem = new int[16];
+        int[] counts = new int[16];
+        for (int i = 0; i < items.length; i++) {
+            String item = items[i];
+            for (int j = -Math.min(PREFIXES, item.length()); j < 0 || j + GRAM <= item.length(); j++) {
+                int slot = grams.add(j < 0 ? prefix(item, -j) : trigram(item, j));
+                if (slot >= counts.length) {
+                    counts = Arrays.copyOf(counts, counts.length * 2);
+                    lastItem = Arrays.copyOf(lastItem, counts.length);
+                }
+                if (counts[slot] == 0 || lastItem[slot] != i) {
+                    counts[slot]++;
+                    lastItem[slot] = i;
+                }
+            }
+        }
+        int slots = grams.size();
+        offsets = new int[slots + 1];
+        for (int slot = 0; slot < slots; slot++) {
+            offsets[slot + 1] = offsets[slot] + counts[slot];
+        }
+        postings = new int[offsets[slots]];
+        int[] next = Arrays.copyOf(offsets, slots);
+        for (int i = 0; i < items.length; i++) {
+            String item = items[i];
+            for (int j = -Math.min(PREFIXES, item.length()); j < 0 || j + GRAM <= item.length(); j++) {
+                int slot = grams.get(j < 0 ? prefix(item, -j) : trigram(item, j));
+                int n = next[slot];
+                if (n == offsets[slot] || postings[n - 1] != i) {
+                    postings[n] = i;
+                    next[slot] = n + 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Key for the first one or two characters of a string, distinct
+     * from all trigram keys.
+     */
+    private static long prefix(String s, int length) {
+        long key = (long) length << 48 | Character.toLowerCase(s.charAt(0));
+        return length == 1 ? key : key | (long) Character.toLowerCase(s.charAt(1)) << 16;
+    }
+
+    private static long trigram(String s, int start) {
+        return (long) Character.toLowerCase(s.charAt(start)) << 32
+            | (long) Character.toLowerCase(s.charAt(start + 1)) << 16
+            | Character.toLowerCase(s.charAt(start + 2));
+    }
+
+    /**
+     * Open-addressing map from trigram to a dense slot number,
+     * assigned in insertion order.
+     */
+    private static final class SlotMap {
+
+        private int add(long key) {
+            int i = find(key);
+            if (keys[i] == NO_KEY) {
+                keys[i] = key;
+                values[i] = size++;
+                if (size * 2 > keys.length) {
+                    grow();
+                    return get(key);
+                }
+            }
+            return values[i];
+        }
+
+        private int get(long key) {
+            int i = find(key);
+            return keys[i] == NO_KEY ? -1 : values[i];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private int find(long key) {
+            int mask = keys.length - 1;
+            int i = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+            while (keys[i] != NO_KEY && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = newKeys(oldKeys.length * 2);
+            values = new int[keys.length];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != NO_KEY) {
+                    int j = find(oldKeys[i]);
+                    keys[j] = oldKeys[i];
+                    values[j] = oldValues[i];
+                }
+            }
+        }
+
+        private static long[] newKeys(int capacity) {
+            long[] keys = new long[capacity];
+            Arrays.fill(keys, NO_KEY);
+            return keys;
+        }
+
+        private static final long NO_KEY = -1L;
+        private long[] keys = newKeys(1024);
+        private int[] values = new int[1024];
+        private int size;
+    }
+
+    private static final int GRAM = 3;
+    private static final int PREFIXES = 2;
+    private static final int[] EMPTY = new int[0];
+    private final String[] items;
+    private final Map<String, Integer> positions;
+    private final SlotMap grams = new SlotMap();
+    private int[] offsets;
+    private int[] postings;
+
+}
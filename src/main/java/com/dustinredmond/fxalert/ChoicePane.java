@@ -0,0 +1,119 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonBar.ButtonData;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.ChoiceDialog;
+import javafx.scene.control.DialogPane;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+
+/**
+ * Replacement content for a ChoiceDialog whose choices are too many for
+ * its ChoiceBox: a filter field above a virtualized ListView. Subclasses
+ * decide which choices the list shows for the filter text.
+ */
+abstract class ChoicePane extends VBox {
+
+    ChoicePane() {
+        super(10);
+        contentLabel.managedProperty().bind(contentLabel.textProperty().isNotEmpty());
+        filter.setPromptText("Type to filter");
+        list.setPrefSize(360, 400);
+        VBox.setVgrow(list, Priority.ALWAYS);
+        getChildren().addAll(contentLabel, filter, list);
+        filter.textProperty().addListener((obs, oldText, text) -> filterChanged(text));
+        filter.setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.DOWN) {
+                list.requestFocus();
+            }
+        });
+    }
+
+    /**
+     * Replaces the ChoiceDialog's ChoiceBox with this pane, and
+     * returns the selected list item as the dialog's result.
+     * @param dialog The ChoiceDialog
+     */
+    final void install(ChoiceDialog<String> dialog) {
+        DialogPane dialogPane = dialog.getDialogPane();
+        dialog.getItems().clear();
+        contentLabel.textProperty().bind(dialogPane.contentTextProperty());
+        dialogPane.setContent(this);
+        // ChoiceDialog puts its own grid back whenever the content text changes
+        dialogPane.contentTextProperty().addListener((obs, oldText, text) -> dialogPane.setContent(this));
+        dialog.setResultConverter(button -> button != null && button.getButtonData() == ButtonData.OK_DONE
+            ? selected() : null);
+        dialog.showingProperty().addListener((obs, wasShowing, showing) -> {
+            if (showing) {
+                shown();
+            } else {
+                hidden();
+            }
+        });
+        list.setOnMouseClicked(e -> {
+            if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 2) {
+                Node ok = dialogPane.lookupButton(ButtonType.OK);
+                if (ok instanceof Button) {
+                    ((Button) ok).fire();
+                }
+            }
+        });
+    }
+
+    /**
+     * Updates the list for new filter text.
+     * @param text The filter text
+     */
+    abstract void filterChanged(String text);
+
+    /**
+     * Called when the dialog is shown.
+     */
+    void shown() {
+        // nothing to start by default
+    }
+
+    /**
+     * Called when the dialog is hidden, to stop any background work.
+     */
+    void hidden() {
+        // nothing to stop by default
+    }
+
+    /**
+     * Returns the item at the selected index. Unlike the selection model's
+     * selected item, this reflects items loaded after they were selected.
+     */
+    private String selected() {
+        int index = list.getSelectionModel().getSelectedIndex();
+        return index < 0 || index >= list.getItems().size() ? null : list.getItems().get(index);
+    }
+
+    final TextField filter = new TextField();
+    final ListView<String> list = new ListView<>();
+    private final Label contentLabel = new Label();
+
+}
@@ -0,0 +1,56 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.List;
+
+/**
+ * Supplies the choices of a ChoiceDialog lazily, for lists too large to
+ * hold in memory, such as the rows of a database table. The dialog loads
+ * pages as the user scrolls and searches as the user types. See
+ * {@code ChoiceDialogBuilder.withChoiceSource(ChoiceSource)}, or, for
+ * choices other than Strings, {@code withChoiceSource(ChoiceSource, Function)}.
+ * Methods are called on background threads, never on the JavaFX
+ * Application thread, and may block. A call whose result is no longer
+ * needed is interrupted, so implementations may stop early when
+ * {@code Thread.interrupted()}.
+ * @param <T> The type of the choices
+ */
+public interface ChoiceSource<T> {
+
+    /**
+     * Returns the total number of choices.
+     * @return Number of choices
+     */
+    int count();
+
+    /**
+     * Returns a range of choices, in display order.
+     * @param offset Index of the first choice to return
+     * @param limit Maximum number of choices to return
+     * @return Up to {@code limit} choices starting at {@code offset}
+     */
+    List<T> page(int offset, int limit);
+
+    /**
+     * Returns the choices matching what the user typed.
+     * @param query The filter text, never empty
+     * @param limit Maximum number of choices to return
+     * @return Up to {@code limit} matching choices, best matches first
+     */
+    List<T> search(String query, int limit);
+}
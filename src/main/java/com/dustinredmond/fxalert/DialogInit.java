@@ -0,0 +1,89 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import javafx.scene.control.Dialog;
+import javafx.stage.Modality;
+import javafx.stage.StageStyle;
+import javafx.stage.Window;
+
+/**
+ * Immutable set of dialog properties that can only be set before a
+ * dialog is first shown (owner, modality, and style), along with its
+ * stylesheets. Dialogs may only be reused for an equal {@code DialogInit}.
+ */
+final class DialogInit {
+
+    DialogInit(Window owner, Modality modality, StageStyle style, List<String> stylesheets) {
+        this.owner = owner;
+        this.modality = modality;
+        this.style = style;
+        this.stylesheets = Collections.unmodifiableList(new ArrayList<>(stylesheets));
+    }
+
+    /**
+     * Applies these properties to a newly created dialog.
+     * @param dialog A dialog that has never been shown
+     * @param <D> The type of dialog
+     * @return The dialog
+     */
+    <D extends Dialog<?>> D applyTo(D dialog) {
+        if (owner != null) {
+            dialog.initOwner(owner);
+        }
+        if (modality != null) {
+            dialog.initModality(modality);
+        }
+        if (style != null) {
+            dialog.initStyle(style);
+        }
+        dialog.getDialogPane().getStylesheets().addAll(stylesheets);
+        return dialog;
+    }
+
+    Window getOwner() {
+        return owner;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DialogInit)) {
+            return false;
+        }
+        DialogInit other = (DialogInit) o;
+        return owner == other.owner && modality == other.modality
+            && style == other.style && stylesheets.equals(other.stylesheets);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(owner), modality, style, stylesheets);
+    }
+
+    private final Window owner;
+    private final Modality modality;
+    private final StageStyle style;
+    private final List<String> stylesheets;
+
+}
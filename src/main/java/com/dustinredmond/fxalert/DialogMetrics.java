@@ -0,0 +1,325 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Built-in aggregates of dialog and flash notification lifecycle
+ * events, kept in lock-free counters and histograms. Always recording,
+ * accessed via {@code FXAlert.getDialogMetrics()}. Events are recorded
+ * by an internal listener, so this view is read-only apart from
+ * {@code reset()}. Call {@code registerMBean()} to publish the
+ * aggregates over JMX.
+ */
+public class DialogMetrics implements DialogMetricsMXBean {
+
+    DialogMetrics() {
+        super();
+    }
+
+    /**
+     * Registers these metrics with the platform MBeanServer under
+     * {@code OBJECT_NAME}, unless already registered.
+     */
+    public synchronized void registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(this, objectName());
+        } catch (InstanceAlreadyExistsException e) {
+            // already published
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to register " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * Removes these metrics from the platform MBeanServer, if registered.
+     */
+    public synchronized void unregisterMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(objectName());
+        } catch (InstanceNotFoundException e) {
+            // not published
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to unregister " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * Returns the listener recording events into these metrics.
+     */
+    DialogMetricsListener recorder() {
+        return recorder;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> getShownCounts() {
+        return snapshot(shown);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> getFlashShownCounts() {
+        return snapshot(flashesShown);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> getSuppressedCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (DialogMetricsListener.Suppression reason : DialogMetricsListener.Suppression.values()) {
+            counts.put(reason.name(), suppressedCounts[reason.ordinal()].sum());
+        }
+        return counts;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getConstructionMeanMillis() {
+        return construction.getMeanMillis();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getConstructionP99Millis() {
+        return construction.getPercentileMillis(99);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getTimeToShownMeanMillis() {
+        return timeToShown.getMeanMillis();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getTimeToShownP99Millis() {
+        return timeToShown.getPercentileMillis(99);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getOnScreenMeanMillis() {
+        return onScreen.getMeanMillis();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getOnScreenP99Millis() {
+        return onScreen.getPercentileMillis(99);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getResponseMeanMillis() {
+        return response.getMeanMillis();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getResponseP99Millis() {
+        return response.getPercentileMillis(99);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getFlashTimeToShownMeanMillis() {
+        return flashTimeToShown.getMeanMillis();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getFlashTimeToShownP99Millis() {
+        return flashTimeToShown.getPercentileMillis(99);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getFlashQueueDepth() {
+        return FXAlert.getFlashManager().getQueueDepth();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getFlashVisibleCount() {
+        return FXAlert.getFlashManager().getVisibleCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getDispatcherQueueDepth() {
+        return FXDispatcher.getQueueDepth();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        shown.clear();
+        flashesShown.clear();
+        for (LongAdder count : suppressedCounts) {
+            count.reset();
+        }
+        construction.reset();
+        timeToShown.reset();
+        onScreen.reset();
+        response.reset();
+        flashTimeToShown.reset();
+    }
+
+    private static void count(Map<String, LongAdder> counts, String kind) {
+        LongAdder count = counts.get(kind);
+        if (count == null) {
+            count = counts.computeIfAbsent(kind, k -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> counts) {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counts.forEach((kind, count) -> snapshot.put(kind, count.sum()));
+        return snapshot;
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static ObjectName objectName() throws JMException {
+        return new ObjectName(OBJECT_NAME);
+    }
+
+    /**
+     * Records events into the enclosing metrics.
+     */
+    private final class Recorder implements DialogMetricsListener {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void dialogConstructed(String kind, long nanos) {
+            construction.record(nanos);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void dialogShown(String kind, long nanos) {
+            count(shown, kind);
+            timeToShown.record(nanos);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void dialogAnswered(String kind, long nanos) {
+            response.record(nanos);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void dialogHidden(String kind, long nanos) {
+            onScreen.record(nanos);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void flashShown(String kind, long nanos) {
+            count(flashesShown, kind);
+            flashTimeToShown.record(nanos);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void suppressed(String kind, Suppression reason) {
+            suppressedCounts[reason.ordinal()].increment();
+        }
+    }
+
+    /**
+     * The name under which {@code registerMBean()} publishes the metrics.
+     */
+    public static final String OBJECT_NAME = "com.dustinredmond.fxalert:type=DialogMetrics";
+    private final Map<String, LongAdder> shown = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> flashesShown = new ConcurrentHashMap<>();
+    private final LongAdder[] suppressedCounts = newAdders(DialogMetricsListener.Suppression.values().length);
+    private final Log2Histogram construction = new Log2Histogram();
+    private final Log2Histogram timeToShown = new Log2Histogram();
+    private final Log2Histogram onScreen = new Log2Histogram();
+    private final Log2Histogram response = new Log2Histogram();
+    private final Log2Histogram flashTimeToShown = new Log2Histogram();
+    private final DialogMetricsListener recorder = new Recorder();
+
+}
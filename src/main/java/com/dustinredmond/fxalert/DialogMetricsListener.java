@@ -0,0 +1,111 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+/**
+ * Receives events about the lifecycle of dialogs and flash notifications,
+ * for metrics. Register with {@code FXAlert.addMetricsListener()}. Every
+ * method has an empty default, so implementations override only what they
+ * need. Methods are called on the JavaFX Application thread, except
+ * {@code suppressed} which may be called from the thread showing an Alert,
+ * and must return quickly. Kinds are an {@code AlertType} name,
+ * "CHOICE" or "INPUT".
+ * @see DialogMetrics
+ */
+public interface DialogMetricsListener {
+
+    /**
+     * Why a dialog or flash notification was not shown.
+     */
+    enum Suppression {
+        /** An Alert was discarded by the {@code AlertRateLimiter} */
+        RATE_LIMITED,
+        /** An exception Alert was folded into an open one for the same exception */
+        EXCEPTION_FOLDED,
+        /** A flash was folded into a visible or queued duplicate */
+        FLASH_COALESCED,
+        /** A flash was discarded because the flash queue was full */
+        FLASH_DROPPED,
+        /** A flash was merged into a summary because the flash queue was full */
+        FLASH_MERGED
+    }
+
+    /**
+     * Called once a dialog has been created and configured.
+     * @param kind The dialog's kind
+     * @param nanos Time taken to construct the dialog
+     */
+    default void dialogConstructed(String kind, long nanos) {
+    }
+
+    /**
+     * Called once a dialog is shown.
+     * @param kind The dialog's kind
+     * @param nanos Time from the request to show the dialog until it was shown
+     */
+    default void dialogShown(String kind, long nanos) {
+    }
+
+    /**
+     * Called when a dialog is closed with a result, such as a pressed button.
+     * @param kind The dialog's kind
+     * @param nanos Time from the dialog being shown until it was answered
+     */
+    default void dialogAnswered(String kind, long nanos) {
+    }
+
+    /**
+     * Called once a dialog has been hidden.
+     * @param kind The dialog's kind
+     * @param nanos Time the dialog was on screen
+     */
+    default void dialogHidden(String kind, long nanos) {
+    }
+
+    /**
+     * Called when a flash notification is submitted to the {@code FlashManager}.
+     * @param kind The flash's {@code AlertType} name
+     * @param queueDepth Number of flashes waiting to be shown
+     */
+    default void flashSubmitted(String kind, int queueDepth) {
+    }
+
+    /**
+     * Called once a flash notification is shown.
+     * @param kind The flash's {@code AlertType} name
+     * @param nanos Time from submission until shown, including time queued
+     */
+    default void flashShown(String kind, long nanos) {
+    }
+
+    /**
+     * Called once a flash notification has faded out.
+     * @param kind The flash's {@code AlertType} name
+     * @param nanos Time the flash was on screen
+     */
+    default void flashHidden(String kind, long nanos) {
+    }
+
+    /**
+     * Called when a dialog or flash notification is not shown.
+     * @param kind The kind of dialog or flash
+     * @param reason Why it was not shown
+     */
+    default void suppressed(String kind, Suppression reason) {
+    }
+
+}
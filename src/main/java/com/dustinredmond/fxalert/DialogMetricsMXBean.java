@@ -0,0 +1,115 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.Map;
+
+/**
+ * JMX view of {@code DialogMetrics}, registered by
+ * {@code DialogMetrics.registerMBean()} as
+ * "com.dustinredmond.fxalert:type=DialogMetrics".
+ * Durations are in milliseconds, percentiles are upper bounds
+ * accurate to within a factor of two.
+ */
+public interface DialogMetricsMXBean {
+
+    /**
+     * @return Number of dialogs shown, by kind
+     */
+    Map<String, Long> getShownCounts();
+
+    /**
+     * @return Number of flash notifications shown, by kind
+     */
+    Map<String, Long> getFlashShownCounts();
+
+    /**
+     * @return Number of dialogs and flashes not shown, by reason
+     */
+    Map<String, Long> getSuppressedCounts();
+
+    /**
+     * @return Mean time to construct a dialog
+     */
+    double getConstructionMeanMillis();
+
+    /**
+     * @return 99th percentile of the time to construct a dialog
+     */
+    double getConstructionP99Millis();
+
+    /**
+     * @return Mean time from a request to show a dialog until it was shown
+     */
+    double getTimeToShownMeanMillis();
+
+    /**
+     * @return 99th percentile of the time until a dialog was shown
+     */
+    double getTimeToShownP99Millis();
+
+    /**
+     * @return Mean time dialogs were on screen
+     */
+    double getOnScreenMeanMillis();
+
+    /**
+     * @return 99th percentile of the time dialogs were on screen
+     */
+    double getOnScreenP99Millis();
+
+    /**
+     * @return Mean time users took to answer a dialog
+     */
+    double getResponseMeanMillis();
+
+    /**
+     * @return 99th percentile of the time users took to answer a dialog
+     */
+    double getResponseP99Millis();
+
+    /**
+     * @return Mean time from submitting a flash until it was shown
+     */
+    double getFlashTimeToShownMeanMillis();
+
+    /**
+     * @return 99th percentile of the time until a flash was shown
+     */
+    double getFlashTimeToShownP99Millis();
+
+    /**
+     * @return Number of flashes waiting to be shown
+     */
+    int getFlashQueueDepth();
+
+    /**
+     * @return Number of flashes on screen
+     */
+    int getFlashVisibleCount();
+
+    /**
+     * @return Number of tasks waiting to run on the JavaFX Application thread
+     */
+    int getDispatcherQueueDepth();
+
+    /**
+     * Clears all counts and histograms.
+     */
+    void reset();
+
+}
@@ -0,0 +1,134 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Dialog;
+import javafx.stage.Stage;
+
+/**
+ * Immutable specification of a dialog, as recorded by a builder's
+ * {@code toSpec()} method. A spec may be shared between threads and
+ * shown any number of times; a new dialog is created each time. A spec
+ * recorded with Nodes rather than Node suppliers, e.g. through
+ * {@code withContent(Node)}, can only show one dialog at a time, as
+ * those Nodes are moved into each new dialog.
+ * @param <D> The type of dialog created
+ * @param <R> The dialog's result type
+ */
+public final class DialogSpec<D extends Dialog<R>, R> {
+
+    DialogSpec(Function<DialogInit, ? extends D> factory, DialogInit init,
+               List<Consumer<? super D>> steps, boolean sized) {
+        this.factory = factory;
+        this.init = init;
+        this.sized = sized;
+        this.steps = Collections.unmodifiableList(new ArrayList<>(steps));
+    }
+
+    /**
+     * Creates a new dialog from this specification.
+     * Must be called on the JavaFX Application thread.
+     * @return A new, configured dialog
+     */
+    public D build() {
+        D dialog = create();
+        if (dialog instanceof Alert) {
+            AlertPool.markEscaped((Alert) dialog);
+        }
+        return dialog;
+    }
+
+    /**
+     * Creates a new dialog from this specification without excluding
+     * it from recycling, for builders that keep the dialog to themselves.
+     * @return A new or borrowed, configured dialog
+     */
+    D create() {
+        long start = System.nanoTime();
+        D dialog = factory.apply(init);
+        for (Consumer<? super D> step : steps) {
+            step.accept(dialog);
+        }
+        AlertPool.prepareForShow(dialog, sized);
+        Metrics.constructed(dialog, start);
+        return dialog;
+    }
+
+    /**
+     * Creates and shows a new dialog from this specification,
+     * without waiting for a result. May be called from any thread.
+     */
+    public void show() {
+        long requestedAt = System.nanoTime();
+        FXDispatcher.execute(() -> Metrics.showing(buildWithGlobalIcon(), requestedAt).show());
+    }
+
+    /**
+     * Creates a new dialog from this specification, shows it, and
+     * waits for the result. Must be called on the JavaFX Application thread.
+     * @return An Optional result from the dialog
+     */
+    public Optional<R> showAndWait() {
+        long requestedAt = System.nanoTime();
+        return Metrics.showing(buildWithGlobalIcon(), requestedAt).showAndWait();
+    }
+
+    /**
+     * Creates and shows a new dialog from this specification without
+     * blocking. May be called from any thread, the returned stage is
+     * completed on the JavaFX Application thread once the dialog is hidden.
+     * @return A CompletionStage of the dialog's Optional result
+     */
+    public CompletionStage<Optional<R>> showAsync() {
+        return showAsync(null);
+    }
+
+    /**
+     * Creates and shows a new dialog from this specification without
+     * blocking. May be called from any thread, the returned stage is
+     * completed by the given Executor once the dialog is hidden.
+     * @param executor Executor on which to complete the returned stage
+     * @return A CompletionStage of the dialog's Optional result
+     */
+    public CompletionStage<Optional<R>> showAsync(Executor executor) {
+        return AsyncDialogs.show(this::buildWithGlobalIcon, executor);
+    }
+
+    private D buildWithGlobalIcon() {
+        D dialog = create();
+        if (FXAlert.getIconImage() != null) {
+            ((Stage) dialog.getDialogPane().getScene().getWindow())
+                .getIcons().add(FXAlert.getIconImage());
+        }
+        return dialog;
+    }
+
+    private final Function<DialogInit, ? extends D> factory;
+    private final DialogInit init;
+    private final boolean sized;
+    private final List<Consumer<? super D>> steps;
+
+}
@@ -0,0 +1,156 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.Node;
+import javafx.scene.control.Alert;
+import javafx.scene.control.DialogPane;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+
+/**
+ * Folds repeated exceptions into the exception Alert that is already
+ * open for them. Exceptions with the same {@code ExceptionFingerprint}
+ * seen within the aggregation window update that Alert's occurrence
+ * count and first/last-seen times instead of opening a new Alert.
+ * Must be used on the JavaFX Application thread, configured via FXAlert.
+ */
+final class ExceptionAggregator {
+
+    ExceptionAggregator() {
+        super();
+    }
+
+    /**
+     * Returns the exception Alert to show for a Throwable, or
+     * null if the Throwable was folded into an open Alert.
+     * @param t The throwable
+     * @param alert Supplies the Alert if one must be shown
+     * @return The Alert to show, or null
+     */
+    Alert prepare(Throwable t, Supplier<Alert> alert) {
+        if (windowNanos == 0) {
+            return alert.get();
+        }
+        ExceptionFingerprint fingerprint = ExceptionFingerprint.of(t, depth);
+        long now = System.nanoTime();
+        Occurrence existing = open.get(fingerprint);
+        if (existing != null && existing.alert.isShowing() && now - existing.lastSeen <= windowNanos) {
+            existing.occurred(now);
+            foldedCount++;
+            Metrics.suppressed(existing.alert.getAlertType().name(), DialogMetricsListener.Suppression.EXCEPTION_FOLDED);
+            return null;
+        }
+        Alert built = alert.get();
+        Occurrence occurrence = new Occurrence(built, now);
+        open.put(fingerprint, occurrence);
+        built.showingProperty().addListener(new ChangeListener<Boolean>() {
+            @Override
+            public void changed(ObservableValue<? extends Boolean> ov, Boolean wasShowing, Boolean showing) {
+                if (!showing) {
+                    ov.removeListener(this);
+                    open.remove(fingerprint, occurrence);
+                }
+            }
+        });
+        return built;
+    }
+
+    void setWindow(Duration window) {
+        if (window == null || window.lessThan(Duration.ZERO)) {
+            throw new IllegalArgumentException("window must not be negative");
+        }
+        this.window = window;
+        this.windowNanos = (long) (window.toMillis() * 1_000_000L);
+    }
+
+    Duration getWindow() {
+        return window;
+    }
+
+    void setDepth(int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("depth must not be negative");
+        }
+        this.depth = depth;
+    }
+
+    int getDepth() {
+        return depth;
+    }
+
+    long getFoldedCount() {
+        return foldedCount;
+    }
+
+    /**
+     * An open exception Alert and the times its exception was seen.
+     */
+    private static final class Occurrence {
+
+        private Occurrence(Alert alert, long now) {
+            this.alert = alert;
+            this.lastSeen = now;
+            this.firstSeenAt = LocalTime.now();
+        }
+
+        private void occurred(long now) {
+            count++;
+            lastSeen = now;
+            String text = String.format("Occurred %d times, first at %s, last at %s",
+                count, TIME.format(firstSeenAt), TIME.format(LocalTime.now()));
+            if (label != null) {
+                label.setText(text);
+                return;
+            }
+            label = new Label(text);
+            DialogPane pane = alert.getDialogPane();
+            Node content = pane.getContent();
+            VBox box = new VBox(10);
+            if (content != null) {
+                box.getChildren().add(content);
+            } else if (pane.getContentText() != null && !pane.getContentText().isEmpty()) {
+                box.getChildren().add(new Label(pane.getContentText()));
+            }
+            box.getChildren().add(label);
+            pane.setContent(box);
+            pane.getScene().getWindow().sizeToScene();
+        }
+
+        private final Alert alert;
+        private final LocalTime firstSeenAt;
+        private long lastSeen;
+        private int count = 1;
+        private Label label;
+    }
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private final Map<ExceptionFingerprint, Occurrence> open = new HashMap<>();
+    private volatile Duration window = Duration.seconds(30);
+    private volatile long windowNanos = 30_000_000_000L;
+    private volatile int depth = 5;
+    private volatile long foldedCount;
+
+}
@@ -0,0 +1,154 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Identifies "the same" exception across separate throws: the
+ * exception class, its message with numbers and hex identifiers
+ * replaced by {@code #}, and the top frames of its stack trace.
+ * Computed from {@code getStackTrace()} without formatting the trace.
+ */
+final class ExceptionFingerprint {
+
+    private ExceptionFingerprint(String className, String template, StackTraceElement[] frames) {
+        this.className = className;
+        this.template = template;
+        this.frames = frames;
+        this.hash = 31 * (31 * className.hashCode() + template.hashCode()) + Arrays.hashCode(frames);
+    }
+
+    /**
+     * Computes the fingerprint of a Throwable.
+     * @param t The throwable
+     * @param depth Number of top stack frames to include
+     * @return The fingerprint
+     */
+    static ExceptionFingerprint of(Throwable t, int depth) {
+        StackTraceElement[] trace = t.getStackTrace();
+        StackTraceElement[] frames = trace.length > depth ? Arrays.copyOf(trace, depth) : trace;
+        return new ExceptionFingerprint(t.getClass().getName(), template(t.getMessage()), frames);
+    }
+
+    /**
+     * Replaces the variable parts of an exception message, runs of digits
+     * and tokens made up of hex digits such as ids, hashes or addresses,
+     * with {@code #}, e.g. "Timeout after 3000ms on 0x7f3a" becomes
+     * "Timeout after #ms on #".
+     * @param message The exception message, may be null
+     * @return The message template
+     */
+    static String template(String message) {
+        if (message == null) {
+            return "";
+        }
+        int length = message.length();
+        StringBuilder sb = new StringBuilder(length);
+        int i = 0;
+        while (i < length) {
+            char c = message.charAt(i);
+            if (!isAlphanumeric(c)) {
+                sb.append(c);
+                i++;
+                continue;
+            }
+            int end = i;
+            boolean hex = true;
+            boolean digit = false;
+            while (end < length && isAlphanumeric(message.charAt(end))) {
+                char ch = message.charAt(end);
+                digit |= ch >= '0' && ch <= '9';
+                hex &= isHexDigit(ch);
+                end++;
+            }
+            if (digit && (hex || isHexLiteral(message, i, end))) {
+                sb.append('#');
+            } else {
+                appendCollapsingDigits(sb, message, i, end);
+            }
+            i = end;
+        }
+        return sb.toString();
+    }
+
+    private static boolean isHexLiteral(String s, int start, int end) {
+        if (end - start < 3 || s.charAt(start) != '0' || (s.charAt(start + 1) | 0x20) != 'x') {
+            return false;
+        }
+        for (int i = start + 2; i < end; i++) {
+            if (!isHexDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void appendCollapsingDigits(StringBuilder sb, String s, int start, int end) {
+        boolean inDigits = false;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            boolean isDigit = c >= '0' && c <= '9';
+            if (!isDigit) {
+                sb.append(c);
+            } else if (!inDigits) {
+                sb.append('#');
+            }
+            inDigits = isDigit;
+        }
+    }
+
+    private static boolean isAlphanumeric(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ExceptionFingerprint)) {
+            return false;
+        }
+        ExceptionFingerprint other = (ExceptionFingerprint) o;
+        return hash == other.hash
+            && className.equals(other.className)
+            && template.equals(other.template)
+            && Arrays.equals(frames, other.frames);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return className + ": " + template + " " + Objects.toString(frames.length > 0 ? frames[0] : null);
+    }
+
+    private final String className;
+    private final String template;
+    private final StackTraceElement[] frames;
+    private final int hash;
+
+}
@@ -16,16 +16,21 @@ package com.dustinredmond.fxalert;
  *  limitations under the License.
  */
 
+import java.util.List;
 import java.util.Optional;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ButtonType;
 import javafx.scene.image.Image;
 import javafx.stage.Window;
+import javafx.util.Duration;
 
 /**
  * Class for easily building JavaFX Alerts.
  * API is available as static methods of {@code FXAlert}.
+ * The {@code showInfo}, {@code showWarning}, {@code showError} and
+ * {@code showException} shortcuts may be called from any thread,
+ * other methods must be called on the JavaFX Application thread.
  */
 public class FXAlert {
 
@@ -34,7 +39,7 @@ public class FXAlert {
      * @return AlertBuilder API
      */
     public static AlertBuilder info() {
-        return new AlertBuilder(AlertType.INFORMATION);
+        return AlertBuilder.pooled(AlertType.INFORMATION);
     }
 
     /**
@@ -45,7 +50,7 @@ public class FXAlert {
      * @param content Alert content text
      */
     public static void showInfo(String title, String header, String content) {
-        info().withText(title, header, content).show();
+        showThrottled(AlertType.INFORMATION, title, header, content);
     }
 
     /**
@@ -55,7 +60,7 @@ public class FXAlert {
      * @param content Alert content text
      */
     public static void showInfo(String header, String content) {
-        info().withText(header, content).show();
+        showThrottled(AlertType.INFORMATION, EMPTY_STRING, header, content);
     }
 
     /**
@@ -64,7 +69,7 @@ public class FXAlert {
      * @param content Alert content text.
      */
     public static void showInfo(String content) {
-        info().withText(content).show();
+        showThrottled(AlertType.INFORMATION, EMPTY_STRING, EMPTY_STRING, content);
     }
 
 
@@ -73,7 +78,7 @@ public class FXAlert {
      * @return AlertBuilder API
      */
     public static AlertBuilder confirm() {
-        return new AlertBuilder(AlertType.CONFIRMATION);
+        return AlertBuilder.pooled(AlertType.CONFIRMATION);
     }
 
     /**
@@ -148,7 +153,7 @@ public class FXAlert {
      * @return AlertBuilder API
      */
     public static AlertBuilder error() {
-        return new AlertBuilder(AlertType.ERROR);
+        return AlertBuilder.pooled(AlertType.ERROR);
     }
 
     /**
@@ -184,7 +189,7 @@ public class FXAlert {
      * @param content Alert content text
      */
     public static void showError(String title, String header, String content) {
-        error().withText(title, header, content).show();
+        showThrottled(AlertType.ERROR, title, header, content);
     }
 
     /**
@@ -194,7 +199,7 @@ public class FXAlert {
      * @param content Alert content text
      */
     public static void showError(String header, String content) {
-        error().withText(header, content).show();
+        showThrottled(AlertType.ERROR, EMPTY_STRING, header, content);
     }
 
     /**
@@ -203,7 +208,7 @@ public class FXAlert {
      * @param content Alert content text
      */
     public static void showError(String content) {
-        error().withText(content).show();
+        showThrottled(AlertType.ERROR, EMPTY_STRING, EMPTY_STRING, content);
     }
 
     /**
@@ -211,7 +216,7 @@ public class FXAlert {
      * @return AlertBuilder API
      */
     public static AlertBuilder warning() {
-        return new AlertBuilder(AlertType.WARNING);
+        return AlertBuilder.pooled(AlertType.WARNING);
     }
 
     /**
@@ -222,7 +227,7 @@ public class FXAlert {
      * @param content Alert content text
      */
     public static void showWarning(String title, String header, String content) {
-        warning().withText(title, header, content).show();
+        showThrottled(AlertType.WARNING, title, header, content);
     }
 
     /**
@@ -232,7 +237,7 @@ public class FXAlert {
      * @param content Alert content text
      */
     public static void showWarning(String header, String content) {
-        warning().withText(header, content).show();
+        showThrottled(AlertType.WARNING, EMPTY_STRING, header, content);
     }
 
     /**
@@ -241,19 +246,21 @@ public class FXAlert {
      * @param content Alert content text
      */
     public static void showWarning(String content) {
-        warning().withText(content).show();
+        showThrottled(AlertType.WARNING, EMPTY_STRING, EMPTY_STRING, content);
     }
 
     /**
      * Prepares a JavaFX Alert suitable for displaying
      * a {@code java.lang.Exception} or {@code Throwable}'s
-     * stack trace.
+     * stack trace. A repeated exception is folded into the Alert
+     * already open for it, in which case {@code showAndWait()}
+     * returns an empty Optional.
      * @param e Throwable
      * @return AlertBuilder API
      */
     public static AlertBuilder exception(Throwable e) {
         return new AlertBuilder(e, EMPTY_STRING, EMPTY_STRING,
-            "The exception stacktrace was:");
+            "The exception stacktrace was:").aggregated();
     }
 
     /**
@@ -265,7 +272,7 @@ public class FXAlert {
      * @param content Alert content text
      */
     public static void showException(Throwable e, String title, String header, String content) {
-        new AlertBuilder(e, title, header, content).show();
+        FXDispatcher.execute(() -> new AlertBuilder(e, title, header, content).aggregated().show());
     }
 
     /**
@@ -276,7 +283,7 @@ public class FXAlert {
      * @param content Alert content text
      */
     public static void showException(Throwable e, String header, String content) {
-        new AlertBuilder(e, EMPTY_STRING, header, content).show();
+        FXDispatcher.execute(() -> new AlertBuilder(e, EMPTY_STRING, header, content).aggregated().show());
     }
 
     /**
@@ -286,7 +293,7 @@ public class FXAlert {
      * @param content Alert content text
      */
     public static void showException(Throwable e, String content) {
-        new AlertBuilder(e, EMPTY_STRING, EMPTY_STRING, content).show();
+        FXDispatcher.execute(() -> new AlertBuilder(e, EMPTY_STRING, EMPTY_STRING, content).aggregated().show());
     }
 
     /**
@@ -318,6 +325,210 @@ public class FXAlert {
         return new FlashBuilder().withInitOwner(initOwner);
     }
 
+    /**
+     * Returns the {@code FlashManager} responsible for limiting
+     * and queueing "flash" notifications.
+     * @return The FlashManager
+     */
+    public static FlashManager getFlashManager() {
+        return FLASH_MANAGER;
+    }
+
+    /**
+     * Returns the pool from which {@code info()}, {@code error()},
+     * {@code warning()} and {@code confirm()} borrow their Alerts.
+     * @return The AlertPool
+     */
+    public static AlertPool getAlertPool() {
+        return ALERT_POOL;
+    }
+
+    /**
+     * Sets the rate limiter applied to the {@code showInfo},
+     * {@code showWarning} and {@code showError} shortcuts.
+     * Set to null (the default) to disable rate limiting.
+     * @param limiter The rate limiter, e.g. a {@code TokenBucketRateLimiter}
+     */
+    public static void setRateLimiter(AlertRateLimiter limiter) {
+        THROTTLE.setLimiter(limiter);
+    }
+
+    /**
+     * Returns the rate limiter applied to the {@code show*} shortcuts.
+     * @return The rate limiter, or null if disabled
+     */
+    public static AlertRateLimiter getRateLimiter() {
+        return THROTTLE.getLimiter();
+    }
+
+    /**
+     * Sets what happens to {@code show*} calls exceeding the rate limit.
+     * Defaults to {@code ExcessPolicy.SUMMARIZE}.
+     * @param policy The excess policy
+     */
+    public static void setExcessPolicy(AlertRateLimiter.ExcessPolicy policy) {
+        THROTTLE.setPolicy(policy);
+    }
+
+    /**
+     * Returns what happens to {@code show*} calls exceeding the rate limit.
+     * @return The excess policy
+     */
+    public static AlertRateLimiter.ExcessPolicy getExcessPolicy() {
+        return THROTTLE.getPolicy();
+    }
+
+    /**
+     * Returns the number of Alerts of the given type
+     * suppressed by the rate limiter.
+     * @param type The AlertType
+     * @return Number of suppressed Alerts
+     */
+    public static long getSuppressedCount(AlertType type) {
+        return THROTTLE.getSuppressedCount(type);
+    }
+
+    /**
+     * Returns the number of Alerts suppressed by the rate limiter.
+     * @return Number of suppressed Alerts
+     */
+    public static long getSuppressedCount() {
+        return THROTTLE.getSuppressedCount();
+    }
+
+    /**
+     * Returns the cache of decoded images shared by
+     * all dialogs and flash notifications.
+     * @return The ImageCache
+     */
+    public static ImageCache getImageCache() {
+        return IMAGE_CACHE;
+    }
+
+    /**
+     * Returns the built-in metrics of dialogs and flash notifications:
+     * counts, construction and display times, user response latency,
+     * and suppressions. Call {@code registerMBean()} on it to publish
+     * them over JMX.
+     * @return The DialogMetrics
+     */
+    public static DialogMetrics getDialogMetrics() {
+        return Metrics.builtIn();
+    }
+
+    /**
+     * Registers a listener notified of the lifecycle
+     * of every dialog and flash notification.
+     * @param listener The listener
+     */
+    public static void addMetricsListener(DialogMetricsListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener must not be null");
+        }
+        Metrics.addListener(listener);
+    }
+
+    /**
+     * Removes a listener registered with {@code addMetricsListener()}.
+     * @param listener The listener
+     */
+    public static void removeMetricsListener(DialogMetricsListener listener) {
+        Metrics.removeListener(listener);
+    }
+
+    /**
+     * Returns the registry of themes applied to dialogs
+     * and flash notifications by stylesheet reference.
+     * @return The ThemeRegistry
+     */
+    public static ThemeRegistry getThemes() {
+        return THEMES;
+    }
+
+    /**
+     * Sets the package prefixes whose stack frames are collapsed
+     * into a single expandable row in exception Alerts.
+     * Pass no prefixes to show every frame.
+     * @param prefixes Package or class name prefixes, e.g. "java.lang.reflect."
+     */
+    public static void setFrameworkPackages(String... prefixes) {
+        if (prefixes == null) {
+            throw new IllegalArgumentException("prefixes must not be null");
+        }
+        for (String prefix : prefixes) {
+            if (prefix == null || prefix.isEmpty()) {
+                throw new IllegalArgumentException("prefixes must not be null or empty");
+            }
+        }
+        FXAlert.frameworkPackages = List.of(prefixes);
+    }
+
+    /**
+     * Returns the package prefixes whose stack frames are
+     * collapsed in exception Alerts.
+     * @return Unmodifiable list of prefixes
+     */
+    public static List<String> getFrameworkPackages() {
+        return frameworkPackages;
+    }
+
+    /**
+     * Sets the window within which a repeated exception (same class,
+     * message apart from numbers and ids, and top stack frames) is folded
+     * into the exception Alert already open for it, which then shows an
+     * occurrence count. Applies to {@code exception()} and
+     * {@code showException()}. Use {@code Duration.ZERO} to disable.
+     * @param window The aggregation window, 30 seconds by default
+     */
+    public static void setExceptionAggregationWindow(Duration window) {
+        EXCEPTIONS.setWindow(window);
+    }
+
+    /**
+     * Returns the window within which repeated exceptions are folded.
+     * @return The aggregation window
+     */
+    public static Duration getExceptionAggregationWindow() {
+        return EXCEPTIONS.getWindow();
+    }
+
+    /**
+     * Sets the number of top stack frames compared
+     * when deciding whether two exceptions are the same.
+     * @param depth Number of frames, 5 by default
+     */
+    public static void setExceptionFingerprintDepth(int depth) {
+        EXCEPTIONS.setDepth(depth);
+    }
+
+    /**
+     * Returns the number of top stack frames compared
+     * when deciding whether two exceptions are the same.
+     * @return Number of frames
+     */
+    public static int getExceptionFingerprintDepth() {
+        return EXCEPTIONS.getDepth();
+    }
+
+    /**
+     * Returns the number of exceptions folded into an
+     * already open exception Alert.
+     * @return Number of folded exceptions
+     */
+    public static long getFoldedExceptionCount() {
+        return EXCEPTIONS.getFoldedCount();
+    }
+
+    static ExceptionAggregator getExceptionAggregator() {
+        return EXCEPTIONS;
+    }
+
+    private static void showThrottled(AlertType type, String title, String header, String content) {
+        if (THROTTLE.permit(type)) {
+            FXDispatcher.execute(() -> AlertBuilder.pooled(type).withText(title, header, content).show());
+        }
+    }
+
     /**
      * Adds an title bar icon to be used for all FXAlert
      * methods. Once enabled, set to null to disable further
@@ -329,6 +540,15 @@ public class FXAlert {
     }
 
     private static final String EMPTY_STRING = "";
+    private static final FlashManager FLASH_MANAGER = new FlashManager();
+    private static final AlertThrottle THROTTLE = new AlertThrottle();
+    private static final AlertPool ALERT_POOL = new AlertPool();
+    private static final ExceptionAggregator EXCEPTIONS = new ExceptionAggregator();
+    private static final ImageCache IMAGE_CACHE = new ImageCache();
+    private static final ThemeRegistry THEMES = new ThemeRegistry();
+    private static volatile List<String> frameworkPackages = List.of(
+        "java.lang.reflect.", "jdk.internal.", "sun.reflect.", "javafx.", "com.sun.javafx.",
+        "org.junit.", "org.springframework.", "reactor.core.");
     private static Image iconImage = null;
 
     public static Image getIconImage() {
@@ -0,0 +1,119 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+/**
+ * Marshals work from any thread onto the JavaFX Application thread.
+ * Tasks go into a lock-free queue. The first batch runs from a single
+ * {@code Platform.runLater()}, and any tasks left over run in further
+ * batches, one per pulse, from a pulse listener that stops once the
+ * queue is empty. A burst of calls from worker threads therefore costs
+ * one {@code runLater()} rather than one per call.
+ */
+final class FXDispatcher {
+
+    private FXDispatcher() {
+        super();
+    }
+
+    /**
+     * Runs the task on the JavaFX Application thread. If called on
+     * that thread while no tasks are queued, the task runs immediately,
+     * otherwise it is queued and runs, in submission order, after the
+     * tasks queued before it.
+     * @param task The task to run
+     */
+    static void execute(Runnable task) {
+        if (Platform.isFxApplicationThread() && QUEUE.isEmpty()) {
+            task.run();
+        } else {
+            enqueue(task);
+        }
+    }
+
+    /**
+     * Queues the task to run with the next batch on the
+     * JavaFX Application thread, even if called on that thread.
+     * @param task The task to run
+     */
+    static void enqueue(Runnable task) {
+        QUEUE.offer(task);
+        if (SCHEDULED.compareAndSet(false, true)) {
+            Platform.runLater(FXDispatcher::drain);
+        }
+    }
+
+    /**
+     * Returns the number of tasks waiting for the next batch.
+     * @return Number of queued tasks
+     */
+    static int getQueueDepth() {
+        return QUEUE.size();
+    }
+
+    /**
+     * Runs a batch of tasks, and keeps the pulse listener
+     * running the next batch until the queue is empty.
+     */
+    private static void drain() {
+        Runnable task;
+        int count = 0;
+        while (count++ < MAX_BATCH && (task = QUEUE.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException | Error e) {
+                Thread t = Thread.currentThread();
+                t.getUncaughtExceptionHandler().uncaughtException(t, e);
+            }
+        }
+        if (pulse == null) {
+            pulse = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    drain();
+                }
+            };
+        }
+        if (QUEUE.isEmpty()) {
+            // producers seeing SCHEDULED == true did not schedule a batch,
+            // so anything they queued must be picked up here
+            SCHEDULED.set(false);
+            if (QUEUE.isEmpty() || !SCHEDULED.compareAndSet(false, true)) {
+                pulse.stop();
+                return;
+            }
+        }
+        pulse.start();
+    }
+
+    /**
+     * Upper bound on tasks run per batch, so that a flood of
+     * requests cannot starve input handling and rendering.
+     */
+    private static final int MAX_BATCH = 256;
+    private static final Queue<Runnable> QUEUE = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean SCHEDULED = new AtomicBoolean();
+    // created on the JavaFX Application thread, once the toolkit is running
+    private static AnimationTimer pulse;
+
+}
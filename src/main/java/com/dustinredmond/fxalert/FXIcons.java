@@ -16,7 +16,20 @@ package com.dustinredmond.fxalert;
  *  limitations under the License.
  */
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import javafx.application.Application;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Transform;
+import javafx.stage.Screen;
 
 /**
  * Provides access to the built-in JavaFX icons.
@@ -30,7 +43,7 @@ public class FXIcons {
      * @return A Label with information icon
      */
     public static Label getInfo() {
-        return getIcon("alert", "information", "dialog-pane");
+        return getIcon(INFO);
     }
 
     /**
@@ -39,7 +52,7 @@ public class FXIcons {
      * @return A Label with confirmation icon
      */
     public static Label getConfirm() {
-        return getIcon("choice-dialog", "dialog-pane");
+        return getIcon(CONFIRM);
     }
 
     /**
@@ -48,7 +61,7 @@ public class FXIcons {
      * @return A Label with error icon
      */
     public static Label getError() {
-        return getIcon("alert", "error", "dialog-pane");
+        return getIcon(ERROR);
     }
 
     /**
@@ -57,19 +70,134 @@ public class FXIcons {
      * @return A Label with warning icon
      */
     public static Label getWarn() {
-        return getIcon("alert", "warning", "dialog-pane");
+        return getIcon(WARN);
+    }
+
+    /**
+     * Returns the icon of an Alert with type INFORMATION, rendered
+     * once for the primary screen's output scale and then cached.
+     * Must be called on the JavaFX Application thread.
+     * @return The information icon
+     */
+    public static Image getInfoImage() {
+        return getImage(INFO);
+    }
+
+    /**
+     * Returns the icon of an Alert with type CONFIRMATION, rendered
+     * once for the primary screen's output scale and then cached.
+     * Must be called on the JavaFX Application thread.
+     * @return The confirmation icon
+     */
+    public static Image getConfirmImage() {
+        return getImage(CONFIRM);
+    }
+
+    /**
+     * Returns the icon of an Alert with type ERROR, rendered
+     * once for the primary screen's output scale and then cached.
+     * Must be called on the JavaFX Application thread.
+     * @return The error icon
+     */
+    public static Image getErrorImage() {
+        return getImage(ERROR);
+    }
+
+    /**
+     * Returns the icon of an Alert with type WARNING, rendered
+     * once for the primary screen's output scale and then cached.
+     * Must be called on the JavaFX Application thread.
+     * @return The warning icon
+     */
+    public static Image getWarnImage() {
+        return getImage(WARN);
+    }
+
+    /**
+     * Returns a 48x48 ImageView of the cached icon for the given
+     * AlertType. Must be called on the JavaFX Application thread.
+     * @param type The AlertType, NONE is shown as INFORMATION
+     * @return An ImageView with the icon
+     */
+    static ImageView getView(AlertType type) {
+        ImageView view = new ImageView(getImage(indexOf(type)));
+        view.setFitWidth(SIZE);
+        view.setFitHeight(SIZE);
+        return view;
+    }
+
+    private static int indexOf(AlertType type) {
+        switch (type) {
+            case CONFIRMATION:
+                return CONFIRM;
+            case ERROR:
+                return ERROR;
+            case WARNING:
+                return WARN;
+            default:
+                return INFO;
+        }
     }
 
     /**
      * Retrieves a JavaFX icon from its style class elements.
-     * @param elements Icon style class elements
+     * @param icon Index of the icon's style class elements
      * @return A Label with the icon
      */
-    private static Label getIcon(String... elements) {
+    private static Label getIcon(int icon) {
         Label label = new Label();
-        label.getStyleClass().addAll(elements);
-        label.setPrefSize(48, 48);
+        label.getStyleClass().addAll(STYLE_CLASSES[icon]);
+        label.setPrefSize(SIZE, SIZE);
         return label;
     }
 
+    /**
+     * Returns the cached rendering of an icon. Icons are rendered
+     * again when the user agent stylesheet or the output scale of
+     * the primary screen has changed since they were cached.
+     */
+    private static Image getImage(int icon) {
+        String stylesheet = Application.getUserAgentStylesheet();
+        if (!Objects.equals(stylesheet, renderedStylesheet)) {
+            RENDERED.clear();
+            renderedStylesheet = stylesheet;
+        }
+        double scale = Screen.getPrimary().getOutputScaleX();
+        Image[] images = RENDERED.computeIfAbsent(scale, s -> new Image[STYLE_CLASSES.length]);
+        if (images[icon] == null) {
+            images[icon] = render(icon, scale);
+        }
+        return images[icon];
+    }
+
+    /**
+     * Snapshots a styled icon Label at the given scale,
+     * so it stays sharp on high-DPI screens.
+     */
+    private static Image render(int icon, double scale) {
+        Label label = getIcon(icon);
+        Group root = new Group(label);
+        new Scene(root);
+        root.applyCss();
+        root.layout();
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.TRANSPARENT);
+        params.setTransform(Transform.scale(scale, scale));
+        return label.snapshot(params, null);
+    }
+
+    private static final double SIZE = 48;
+    private static final int INFO = 0;
+    private static final int CONFIRM = 1;
+    private static final int ERROR = 2;
+    private static final int WARN = 3;
+    private static final String[][] STYLE_CLASSES = {
+        {"alert", "information", "dialog-pane"},
+        {"choice-dialog", "dialog-pane"},
+        {"alert", "error", "dialog-pane"},
+        {"alert", "warning", "dialog-pane"}
+    };
+    private static final Map<Double, Image[]> RENDERED = new HashMap<>();
+    private static String renderedStylesheet;
+
 }
@@ -0,0 +1,160 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import javafx.animation.AnimationTimer;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+/**
+ * Drives the hold-then-fade animation of every visible flash
+ * notification from a single pulse listener. Opacity is derived
+ * from the pulse timestamp, so fades take the same time regardless
+ * of frame rate. The timer stops itself once no flashes are active.
+ * Must be used on the JavaFX Application thread.
+ */
+final class FlashAnimator {
+
+    private FlashAnimator() {
+        super();
+    }
+
+    /**
+     * Starts animating a visible flash Stage. The Stage is
+     * hidden once the hold and fade durations have passed.
+     * @param stage The flash Stage
+     * @param hold How long the flash is shown at full opacity
+     * @param fade How long the flash takes to fade out
+     * @return A handle allowing the animation to be restarted or cancelled
+     */
+    static Fade start(Stage stage, Duration hold, Duration fade) {
+        Fade f = new Fade(stage, toNanos(hold), toNanos(fade));
+        ACTIVE.add(f);
+        if (!running) {
+            running = true;
+            TIMER.start();
+        }
+        return f;
+    }
+
+    /**
+     * Stops animating the given Stage, if it is being animated,
+     * without hiding it.
+     * @param stage The flash Stage
+     */
+    static void cancel(Stage stage) {
+        for (Fade f : new ArrayList<>(ACTIVE)) {
+            if (f.stage == stage) {
+                f.cancel();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of flashes currently being animated.
+     * @return Number of active flashes
+     */
+    static int getActiveCount() {
+        return ACTIVE.size();
+    }
+
+    private static void tick(long now) {
+        List<Fade> finished = null;
+        for (Iterator<Fade> it = ACTIVE.iterator(); it.hasNext();) {
+            Fade f = it.next();
+            if (f.startedAt < 0) {
+                f.startedAt = now;
+            }
+            long elapsed = now - f.startedAt - f.holdNanos;
+            if (elapsed <= 0) {
+                continue;
+            }
+            if (elapsed >= f.fadeNanos) {
+                it.remove();
+                if (finished == null) {
+                    finished = new ArrayList<>();
+                }
+                finished.add(f);
+            } else {
+                f.stage.setOpacity(1 - (double) elapsed / f.fadeNanos);
+            }
+        }
+        if (ACTIVE.isEmpty()) {
+            running = false;
+            TIMER.stop();
+        }
+        // hide last, hiding may show queued flashes and start new fades
+        if (finished != null) {
+            for (Fade f : finished) {
+                f.stage.hide();
+            }
+        }
+    }
+
+    private static long toNanos(Duration duration) {
+        return (long) (duration.toMillis() * 1_000_000L);
+    }
+
+    /**
+     * Animation state of a single flash notification.
+     */
+    static final class Fade {
+
+        private Fade(Stage stage, long holdNanos, long fadeNanos) {
+            this.stage = stage;
+            this.holdNanos = holdNanos;
+            this.fadeNanos = Math.max(1, fadeNanos);
+        }
+
+        /**
+         * Restores full opacity and starts the hold period over.
+         */
+        void restart() {
+            startedAt = -1;
+            stage.setOpacity(1);
+        }
+
+        /**
+         * Stops animating the Stage without hiding it, e.g. because it
+         * was hidden some other way. Does nothing once the fade is over.
+         */
+        void cancel() {
+            if (ACTIVE.remove(this) && ACTIVE.isEmpty()) {
+                running = false;
+                TIMER.stop();
+            }
+        }
+
+        private final Stage stage;
+        private final long holdNanos;
+        private final long fadeNanos;
+        private long startedAt = -1;
+    }
+
+    private static final List<Fade> ACTIVE = new ArrayList<>();
+    private static final AnimationTimer TIMER = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            tick(now);
+        }
+    };
+    private static boolean running;
+
+}
@@ -16,19 +16,19 @@ package com.dustinredmond.fxalert;
  *  limitations under the License.
  */
 
-import javafx.animation.AnimationTimer;
-import javafx.geometry.Insets;
+import java.util.ArrayList;
+import java.util.List;
 import javafx.geometry.Rectangle2D;
 import javafx.scene.Node;
-import javafx.scene.Scene;
+import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.GridPane;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
-import javafx.stage.StageStyle;
 import javafx.stage.Window;
+import javafx.util.Duration;
 
 /**
  * Builder-style class for creating
@@ -50,7 +50,8 @@ public class FlashBuilder {
      * @return The FlashBuilder
      */
     public FlashBuilder info() {
-        this.graphic = FXIcons.getInfo();
+        this.graphic = null;
+        this.type = AlertType.INFORMATION;
         return this;
     }
 
@@ -60,7 +61,8 @@ public class FlashBuilder {
      * @return The FlashBuilder
      */
     public FlashBuilder error() {
-        this.graphic = FXIcons.getError();
+        this.graphic = null;
+        this.type = AlertType.ERROR;
         return this;
     }
 
@@ -70,7 +72,8 @@ public class FlashBuilder {
      * @return The FlashBuilder
      */
     public FlashBuilder warn() {
-        this.graphic = FXIcons.getWarn();
+        this.graphic = null;
+        this.type = AlertType.WARNING;
         return this;
     }
 
@@ -80,7 +83,8 @@ public class FlashBuilder {
      * @return The FlashBuilder
      */
     public FlashBuilder confirm() {
-        this.graphic = FXIcons.getConfirm();
+        this.graphic = null;
+        this.type = AlertType.CONFIRMATION;
         return this;
     }
 
@@ -92,6 +96,7 @@ public class FlashBuilder {
      */
     public FlashBuilder withHeader(Node header) {
         this.header = header;
+        this.headerText = null;
         return this;
     }
 
@@ -102,6 +107,7 @@ public class FlashBuilder {
      */
     public FlashBuilder withHeader(String header) {
         this.header = new Label(header);
+        this.headerText = header;
         return this;
     }
 
@@ -113,6 +119,7 @@ public class FlashBuilder {
      */
     public FlashBuilder withContent(Node content) {
         this.content = content;
+        this.contentText = null;
         return this;
     }
 
@@ -124,23 +131,38 @@ public class FlashBuilder {
      */
     public FlashBuilder withContent(String content) {
         this.content = new Label(content);
+        this.contentText = content;
         return this;
     }
 
     /**
-     * Sets an Image as the graphic (icon) for the
-     * flash notification.
+     * Sets an Image as the graphic (icon) for the flash notification,
+     * scaled to 48x48. The Image is used as decoded by the caller; to
+     * have a large image decoded at 48x48 only, pass its URL to
+     * {@code withGraphic(String)} instead.
      * @param graphic An Image to act as an icon
      * @return The FlashBuilder
      */
     public FlashBuilder withGraphic(Image graphic) {
         ImageView iv = new ImageView(graphic);
-        iv.setFitHeight(48);
-        iv.setFitWidth(48);
+        iv.setFitHeight(ICON_SIZE);
+        iv.setFitWidth(ICON_SIZE);
         this.graphic = iv;
         return this;
     }
 
+    /**
+     * Sets the image at the given URL as the graphic (icon)
+     * for the flash notification. The image is decoded at
+     * 48x48 in the background, the flash is shown at once.
+     * @param url URL of an image to act as an icon
+     * @return The FlashBuilder
+     */
+    public FlashBuilder withGraphic(String url) {
+        this.graphic = Graphics.sized(url, ICON_SIZE, ICON_SIZE);
+        return this;
+    }
+
     /**
      * Sets a Node as the graphic (icon) for the
      * flash notification.
@@ -177,12 +199,60 @@ public class FlashBuilder {
     }
 
     /**
-     * Sets the stylesheet for the Flash alert's content Node
+     * Adds a stylesheet to the Flash alert's root pane
      * @param url Path to a stylesheet
      * @return the FlashBuilder
      */
     public FlashBuilder withStylesheet(String url) {
-        this.content.getScene().getStylesheets().add(url);
+        this.stylesheets.add(url);
+        return this;
+    }
+
+    /**
+     * Applies a theme registered with {@code FXAlert.getThemes()}
+     * to the flash notification, by reference to its stylesheet.
+     * @param name The theme's name
+     * @return the FlashBuilder
+     */
+    public FlashBuilder withTheme(String name) {
+        return withStylesheet(FXAlert.getThemes().getStylesheet(name));
+    }
+
+    /**
+     * Sets the key used to coalesce duplicate flash notifications.
+     * A flash submitted while another with the same key was seen within
+     * {@code FlashManager.getCoalesceWindow()} is not shown; instead,
+     * the existing flash displays an occurrence count and restarts its
+     * timer. Without an explicit key, flashes are coalesced by type,
+     * header and content text, as long as both were given as Strings.
+     * @param key The coalescing key
+     * @return The FlashBuilder
+     */
+    public FlashBuilder withKey(String key) {
+        this.key = key;
+        return this;
+    }
+
+    /**
+     * Sets how long the flash notification is shown at full
+     * opacity before it starts to fade out. Defaults to
+     * {@code FlashManager.getHoldDuration()}.
+     * @param hold Time shown before fading
+     * @return The FlashBuilder
+     */
+    public FlashBuilder withHoldDuration(Duration hold) {
+        this.holdDuration = hold;
+        return this;
+    }
+
+    /**
+     * Sets how long the flash notification takes to fade out.
+     * Defaults to {@code FlashManager.getFadeDuration()}.
+     * @param fade Time taken to fade out
+     * @return The FlashBuilder
+     */
+    public FlashBuilder withFadeDuration(Duration fade) {
+        this.fadeDuration = fade;
         return this;
     }
 
@@ -201,39 +271,32 @@ public class FlashBuilder {
      * time in the lower-right corner of the user's active screen.
      * The Flash Alert will cause a new taskbar icon to be created
      * unless the {@code withInitOwner()} methods has been previously
-     * called.
+     * called. If too many flash notifications are already visible,
+     * the notification is queued by the {@code FlashManager}.
+     * May be called from any thread.
      */
     public void show() {
-        Stage stage = new Stage(StageStyle.UNDECORATED);
-        stage.setIconified(false);
-        stage.setAlwaysOnTop(true);
-        stage.setScene(buildGrid());
+        submittedAt = System.nanoTime();
+        FXDispatcher.execute(() -> FXAlert.getFlashManager().submit(this));
+    }
 
-        if (this.initOwner != null) {
-            stage.initOwner(this.initOwner);
-        }
+    /**
+     * Displays the flash notification immediately.
+     * @param onHidden Called once the notification has faded out
+     */
+    void display(Runnable onHidden) {
+        FlashManager manager = FXAlert.getFlashManager();
+        FlashStagePool pool = manager.getStagePool();
+        FlashStagePool.PooledStage pooled = pool.acquire(this.initOwner);
+        Stage stage = pooled.stage;
+        Rectangle2D bounds = Screen.getPrimary().getVisualBounds();
+        stage.setIconified(false);
+        fillGrid(pooled.grid);
 
         if (FXAlert.getIconImage() != null) {
             stage.getIcons().add(FXAlert.getIconImage());
         }
 
-        AnimationTimer t = new AnimationTimer() {
-            private double wait;
-            @Override
-            public void handle(long now) {
-                wait++;
-                if (!(wait > 150)) {
-                    return;
-                }
-                if (stage.getOpacity() >= 0.01) {
-                    stage.setOpacity(stage.getOpacity() - 0.01);
-                } else {
-                    stage.hide();
-                    stop();
-                }
-            }
-        };
-
         if (sizeX > 0 || sizeY > 0) {
             stage.setX(bounds.getMinX() + bounds.getWidth() - sizeX);
             stage.setY(bounds.getMinY() + bounds.getHeight() - sizeY);
@@ -246,21 +309,100 @@ public class FlashBuilder {
             stage.setHeight(100);
         }
 
+        stage.setOnHidden(e -> {
+            Metrics.flashHidden(kind(), System.nanoTime() - shownAt);
+            this.grid = null;
+            this.countLabel = null;
+            // the Stage may be hidden before its fade ends, e.g. with its owner
+            this.fade.cancel();
+            pool.release(pooled);
+            onHidden.run();
+        });
         stage.show();
         stage.toFront();
-        t.start();
+        shownAt = System.nanoTime();
+        Metrics.flashShown(kind(), submittedAt == 0 ? 0 : shownAt - submittedAt);
+        this.fade = FlashAnimator.start(stage,
+            holdDuration != null ? holdDuration : manager.getHoldDuration(),
+            fadeDuration != null ? fadeDuration : manager.getFadeDuration());
+    }
+
+    /**
+     * Returns the kind of this flash for metrics, its {@code AlertType} name.
+     * @return The kind
+     */
+    String kind() {
+        return type.name();
+    }
+
+    /**
+     * Returns the key used to coalesce this flash with duplicates,
+     * or null if it cannot be coalesced.
+     * @return The coalescing key
+     */
+    String coalesceKey() {
+        if (key != null) {
+            return key;
+        }
+        if ((header != null && headerText == null) || (content != null && contentText == null)) {
+            return null;
+        }
+        return type + "\u0000" + headerText + "\u0000" + contentText;
+    }
+
+    /**
+     * Records another occurrence of this flash, updating its counter
+     * and restarting its timer if the flash is already visible.
+     * @param now Time of the occurrence, in nanoseconds
+     */
+    void occurred(long now) {
+        occurrences++;
+        lastSeen = now;
+        if (grid == null) {
+            return;
+        }
+        if (countLabel == null) {
+            countLabel = new Label();
+            grid.add(countLabel, 2, 0);
+        }
+        countLabel.setText("\u00d7" + occurrences);
+        fade.restart();
+    }
+
+    /**
+     * Returns the time this flash was last submitted.
+     * @return Time in nanoseconds
+     */
+    long lastSeen() {
+        return lastSeen;
     }
 
-    private Scene buildGrid() {
-        GridPane grid = new GridPane();
-        Scene scene = new Scene(grid);
-        grid.setPadding(new Insets(25));
-        grid.setVgap(10);
-        grid.setHgap(20);
+    /**
+     * Records the time this flash was first submitted.
+     * @param now Time in nanoseconds
+     */
+    void seenAt(long now) {
+        lastSeen = now;
+    }
 
+    /**
+     * Fills the (empty) root of a pooled flash Stage
+     * with this notification's graphic, header, and content.
+     */
+    private void fillGrid(GridPane grid) {
+        this.grid = grid;
+        if (occurrences > 1) {
+            countLabel = new Label("\u00d7" + occurrences);
+            grid.add(countLabel, 2, 0);
+        }
         if (paneStyle != null && !paneStyle.trim().isEmpty()) {
             grid.setStyle(paneStyle);
         }
+        String theme = FXAlert.getThemes().getDefaultStylesheet();
+        if (theme != null) {
+            grid.getStylesheets().add(theme);
+        }
+        grid.getStylesheets().addAll(stylesheets);
 
         // if either header or content is missing
         // graphic should only span one column, otherwise
@@ -270,11 +412,11 @@ public class FlashBuilder {
         if (graphic != null) {
             grid.add(graphic, 0, 0, 1, rowSpan);
         } else {
-            grid.add(FXIcons.getInfo(), 0, 0, 1 ,rowSpan);
+            grid.add(FXIcons.getView(type), 0, 0, 1, rowSpan);
         }
 
         if (header == null && content == null) {
-            return scene;
+            return;
         }
 
         if (header == null) {
@@ -286,17 +428,30 @@ public class FlashBuilder {
             grid.add(content, 1, 1);
 
         }
-        return scene;
     }
 
 
-    private final Rectangle2D bounds = Screen.getPrimary().getVisualBounds();
+    private static final double ICON_SIZE = 48;
     private Node header;
     private Node content;
     private Node graphic;
     private double sizeX;
     private double sizeY;
     private String paneStyle;
+    private final List<String> stylesheets = new ArrayList<>();
     private Window initOwner;
+    private Duration holdDuration;
+    private Duration fadeDuration;
+    private AlertType type = AlertType.INFORMATION;
+    private String headerText;
+    private String contentText;
+    private String key;
+    private int occurrences = 1;
+    private long lastSeen;
+    private GridPane grid;
+    private Label countLabel;
+    private FlashAnimator.Fade fade;
+    private long submittedAt;
+    private long shownAt;
 
 }
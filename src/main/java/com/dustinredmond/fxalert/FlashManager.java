@@ -0,0 +1,368 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import javafx.util.Duration;
+
+/**
+ * Central coordinator for "flash" notifications.
+ * Limits how many flash notifications are on screen at once,
+ * and queues the rest until a visible flash has faded out.
+ * Accessed via {@code FXAlert.getFlashManager()}. Unless stated
+ * otherwise, methods must be called on the JavaFX Application thread.
+ */
+public class FlashManager {
+
+    /**
+     * Policy applied when a flash notification is submitted
+     * while the display queue is already full.
+     */
+    public enum OverflowPolicy {
+        /** Discards the oldest queued flash to make room for the new one */
+        DROP_OLDEST,
+        /** Discards the newly submitted flash */
+        DROP_NEWEST,
+        /** Folds overflowing flashes into a single summary flash */
+        MERGE
+    }
+
+    FlashManager() {
+        super();
+    }
+
+    /**
+     * Sets the maximum number of flash notifications that
+     * may be visible at the same time.
+     * @param maxVisible Maximum visible flashes, must be at least 1
+     */
+    public void setMaxVisible(int maxVisible) {
+        if (maxVisible < 1) {
+            throw new IllegalArgumentException("maxVisible must be at least 1");
+        }
+        this.maxVisible = maxVisible;
+        drain();
+    }
+
+    /**
+     * Returns the maximum number of simultaneously visible flashes.
+     * @return Maximum visible flashes
+     */
+    public int getMaxVisible() {
+        return maxVisible;
+    }
+
+    /**
+     * Sets the maximum number of flash notifications that may wait
+     * in the display queue. Once full, the {@code OverflowPolicy} applies.
+     * @param maxQueued Maximum queued flashes, must not be negative
+     */
+    public void setMaxQueued(int maxQueued) {
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("maxQueued must not be negative");
+        }
+        this.maxQueued = maxQueued;
+        while (queue.size() > maxQueued) {
+            overflow(queue.pollLast());
+        }
+        queueDepth = queue.size();
+    }
+
+    /**
+     * Returns the maximum number of queued flashes.
+     * @return Maximum queued flashes
+     */
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    /**
+     * Sets the policy used when the display queue is full.
+     * @param overflowPolicy The overflow policy
+     */
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        if (overflowPolicy == null) {
+            throw new IllegalArgumentException("overflowPolicy must not be null");
+        }
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Returns the policy used when the display queue is full.
+     * @return The overflow policy
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Sets how long flash notifications are shown at full opacity
+     * before they start to fade out, unless overridden by
+     * {@code FlashBuilder.withHoldDuration(Duration)}.
+     * @param holdDuration Time shown before fading
+     */
+    public void setHoldDuration(Duration holdDuration) {
+        if (holdDuration == null || holdDuration.lessThan(Duration.ZERO)) {
+            throw new IllegalArgumentException("holdDuration must not be negative");
+        }
+        this.holdDuration = holdDuration;
+    }
+
+    /**
+     * Returns how long flash notifications are shown
+     * at full opacity before fading out.
+     * @return The hold duration
+     */
+    public Duration getHoldDuration() {
+        return holdDuration;
+    }
+
+    /**
+     * Sets how long flash notifications take to fade out, unless
+     * overridden by {@code FlashBuilder.withFadeDuration(Duration)}.
+     * @param fadeDuration Time taken to fade out
+     */
+    public void setFadeDuration(Duration fadeDuration) {
+        if (fadeDuration == null || fadeDuration.lessThan(Duration.ZERO)) {
+            throw new IllegalArgumentException("fadeDuration must not be negative");
+        }
+        this.fadeDuration = fadeDuration;
+    }
+
+    /**
+     * Returns how long flash notifications take to fade out.
+     * @return The fade duration
+     */
+    public Duration getFadeDuration() {
+        return fadeDuration;
+    }
+
+    /**
+     * Sets the window within which duplicate flash notifications
+     * (see {@code FlashBuilder.withKey(String)}) are coalesced into
+     * a single flash showing an occurrence count. Use
+     * {@code Duration.ZERO} to disable coalescing.
+     * @param coalesceWindow The coalescing window
+     */
+    public void setCoalesceWindow(Duration coalesceWindow) {
+        if (coalesceWindow == null || coalesceWindow.lessThan(Duration.ZERO)) {
+            throw new IllegalArgumentException("coalesceWindow must not be negative");
+        }
+        this.coalesceWindow = coalesceWindow;
+        this.coalesceWindowNanos = (long) (coalesceWindow.toMillis() * 1_000_000L);
+    }
+
+    /**
+     * Returns the window within which duplicate flashes are coalesced.
+     * @return The coalescing window
+     */
+    public Duration getCoalesceWindow() {
+        return coalesceWindow;
+    }
+
+    /**
+     * Returns the number of flashes folded into an existing
+     * flash with the same key. Safe to call from any thread.
+     * @return Total coalesced flashes
+     */
+    public long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * Returns the number of flashes waiting to be shown.
+     * Safe to call from any thread.
+     * @return Current queue depth
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * Returns the number of flashes currently on screen.
+     * Safe to call from any thread.
+     * @return Number of visible flashes
+     */
+    public int getVisibleCount() {
+        return visibleCount;
+    }
+
+    /**
+     * Returns the number of flashes discarded by the
+     * {@code DROP_OLDEST} or {@code DROP_NEWEST} policies.
+     * Safe to call from any thread.
+     * @return Total dropped flashes
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Returns the number of flashes folded into a summary
+     * flash by the {@code MERGE} policy.
+     * Safe to call from any thread.
+     * @return Total merged flashes
+     */
+    public long getMergedCount() {
+        return mergedCount;
+    }
+
+    /**
+     * Returns the pool of reusable Stages used to display flashes.
+     * @return The FlashStagePool
+     */
+    public FlashStagePool getStagePool() {
+        return stagePool;
+    }
+
+    /**
+     * Shows the flash immediately if fewer than {@code maxVisible} are
+     * on screen, otherwise adds it to the display queue.
+     * @param flash The flash to show
+     */
+    void submit(FlashBuilder flash) {
+        if (coalesce(flash)) {
+            return;
+        }
+        if (visibleCount < maxVisible && queue.isEmpty()) {
+            Metrics.flashSubmitted(flash.kind(), 0);
+            display(flash);
+            return;
+        }
+        if (queue.size() < maxQueued) {
+            queue.addLast(flash);
+        } else if (overflowPolicy == OverflowPolicy.DROP_OLDEST && !queue.isEmpty()) {
+            overflow(queue.pollFirst());
+            queue.addLast(flash);
+        } else {
+            overflow(flash);
+        }
+        queueDepth = queue.size();
+        Metrics.flashSubmitted(flash.kind(), queueDepth);
+    }
+
+    /**
+     * Folds the flash into a queued or visible flash with the
+     * same key, if one was seen within the coalescing window.
+     * Otherwise, registers the flash under its key.
+     * @return true if the flash was coalesced
+     */
+    private boolean coalesce(FlashBuilder flash) {
+        if (coalesceWindowNanos == 0) {
+            return false;
+        }
+        String key = flash.coalesceKey();
+        if (key == null) {
+            return false;
+        }
+        long now = System.nanoTime();
+        FlashBuilder existing = byKey.get(key);
+        if (existing != null && now - existing.lastSeen() <= coalesceWindowNanos) {
+            existing.occurred(now);
+            coalescedCount++;
+            Metrics.suppressed(flash.kind(), DialogMetricsListener.Suppression.FLASH_COALESCED);
+            return true;
+        }
+        flash.seenAt(now);
+        byKey.put(key, flash);
+        return false;
+    }
+
+    /**
+     * Removes a flash that has faded out or been dropped from
+     * the coalescing index, unless a newer flash replaced it.
+     */
+    private void forget(FlashBuilder flash) {
+        String key = flash.coalesceKey();
+        if (key != null) {
+            byKey.remove(key, flash);
+        }
+    }
+
+    private void overflow(FlashBuilder flash) {
+        forget(flash);
+        if (overflowPolicy == OverflowPolicy.MERGE) {
+            pendingMerged++;
+            mergedCount++;
+            Metrics.suppressed(flash.kind(), DialogMetricsListener.Suppression.FLASH_MERGED);
+        } else {
+            droppedCount++;
+            Metrics.suppressed(flash.kind(), DialogMetricsListener.Suppression.FLASH_DROPPED);
+        }
+    }
+
+    private void display(FlashBuilder flash) {
+        visibleCount++;
+        flash.display(() -> onHidden(flash));
+    }
+
+    private void onHidden(FlashBuilder flash) {
+        forget(flash);
+        visibleCount--;
+        drain();
+    }
+
+    private void drain() {
+        while (visibleCount < maxVisible) {
+            FlashBuilder next = queue.pollFirst();
+            if (next == null) {
+                next = pollSummary();
+            }
+            if (next == null) {
+                break;
+            }
+            queueDepth = queue.size();
+            display(next);
+        }
+    }
+
+    /**
+     * Builds the summary flash for notifications folded
+     * by the {@code MERGE} policy, if there are any.
+     */
+    private FlashBuilder pollSummary() {
+        if (pendingMerged == 0) {
+            return null;
+        }
+        int count = pendingMerged;
+        pendingMerged = 0;
+        return new FlashBuilder()
+            .withHeader(String.format("%d more notification%s", count, count == 1 ? "" : "s"))
+            .withContent("Notifications were merged because too many arrived at once.");
+    }
+
+    private final Deque<FlashBuilder> queue = new ArrayDeque<>();
+    private final FlashStagePool stagePool = new FlashStagePool();
+    private final Map<String, FlashBuilder> byKey = new HashMap<>();
+    private int maxVisible = 5;
+    private int maxQueued = 100;
+    private int pendingMerged;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+    private Duration holdDuration = Duration.millis(2500);
+    private Duration fadeDuration = Duration.millis(1650);
+    private Duration coalesceWindow = Duration.seconds(2);
+    private long coalesceWindowNanos = 2_000_000_000L;
+    private volatile int queueDepth;
+    private volatile int visibleCount;
+    private volatile long droppedCount;
+    private volatile long mergedCount;
+    private volatile long coalescedCount;
+
+}
@@ -0,0 +1,270 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import javafx.animation.PauseTransition;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.layout.GridPane;
+import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+import javafx.stage.Window;
+import javafx.util.Duration;
+
+/**
+ * Pool of reusable, undecorated Stages used to display "flash"
+ * notifications. Creating a native window is the most expensive part
+ * of showing a flash, so Stages are kept after they fade out and their
+ * Scene's root is cleared and refilled on reuse.
+ * Stages are pooled per owning Window, as a Stage's owner cannot
+ * be changed once set. Accessed via {@code FlashManager.getStagePool()},
+ * methods must be called on the JavaFX Application thread.
+ */
+public class FlashStagePool {
+
+    FlashStagePool() {
+        super();
+    }
+
+    /**
+     * Sets the number of owner-less Stages that {@code prewarm()} creates
+     * up front, and that are kept even after the idle timeout passes.
+     * @param warmSize Number of Stages to keep warm
+     */
+    public void setWarmSize(int warmSize) {
+        if (warmSize < 0) {
+            throw new IllegalArgumentException("warmSize must not be negative");
+        }
+        this.warmSize = warmSize;
+    }
+
+    /**
+     * Returns the number of owner-less Stages kept warm.
+     * @return The warm size
+     */
+    public int getWarmSize() {
+        return warmSize;
+    }
+
+    /**
+     * Sets the maximum number of idle Stages retained by the pool.
+     * Stages released while the pool is full are closed.
+     * @param maxSize Maximum number of idle Stages
+     */
+    public void setMaxSize(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must not be negative");
+        }
+        this.maxSize = maxSize;
+        evict(Long.MIN_VALUE);
+    }
+
+    /**
+     * Returns the maximum number of idle Stages retained by the pool.
+     * @return The max size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets how long a Stage may stay idle before it is closed.
+     * Owner-less Stages within the warm size are never evicted.
+     * @param idleTimeout The idle timeout
+     */
+    public void setIdleTimeout(Duration idleTimeout) {
+        if (idleTimeout == null || idleTimeout.lessThanOrEqualTo(Duration.ZERO)) {
+            throw new IllegalArgumentException("idleTimeout must be positive");
+        }
+        this.idleTimeout = idleTimeout;
+        if (evictionTimer != null) {
+            evictionTimer.setDuration(idleTimeout);
+        }
+    }
+
+    /**
+     * Returns how long a Stage may stay idle before it is closed.
+     * @return The idle timeout
+     */
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Creates owner-less Stages until the warm size is reached,
+     * so that the first flash notifications do not pay for them.
+     */
+    public void prewarm() {
+        Deque<PooledStage> idle = idleFor(null);
+        while (idle.size() < Math.min(warmSize, maxSize) && idleCount < maxSize) {
+            PooledStage pooled = create(null);
+            pooled.idleSince = System.nanoTime();
+            idle.addLast(pooled);
+            idleCount++;
+        }
+    }
+
+    /**
+     * Returns the number of idle Stages held by the pool.
+     * @return Number of idle Stages
+     */
+    public int getIdleCount() {
+        return idleCount;
+    }
+
+    /**
+     * Returns the number of Stages created by the pool
+     * since the application started.
+     * @return Total Stages created
+     */
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    /**
+     * Takes an idle Stage for the given owner from the pool,
+     * creating a new one if none are available. The Stage's
+     * root GridPane is empty and its opacity is reset.
+     * @param owner The owning Window, may be null
+     * @return A Stage ready to be filled and shown
+     */
+    PooledStage acquire(Window owner) {
+        Deque<PooledStage> idle = pool.get(owner);
+        PooledStage pooled = idle == null ? null : idle.pollLast();
+        if (pooled == null) {
+            return create(owner);
+        }
+        idleCount--;
+        return pooled;
+    }
+
+    /**
+     * Returns a hidden Stage to the pool, closing it instead if the
+     * pool is full. Any fade still animating the Stage is cancelled,
+     * so that it cannot hide the Stage's next flash.
+     * @param pooled The Stage to return
+     */
+    void release(PooledStage pooled) {
+        FlashAnimator.cancel(pooled.stage);
+        pooled.reset();
+        if (idleCount >= maxSize || (pooled.owner != null && !pooled.owner.isShowing())) {
+            pooled.stage.close();
+            return;
+        }
+        pooled.idleSince = System.nanoTime();
+        idleFor(pooled.owner).addLast(pooled);
+        idleCount++;
+        scheduleEviction();
+    }
+
+    private void scheduleEviction() {
+        if (evictionTimer == null) {
+            evictionTimer = new PauseTransition(idleTimeout);
+            evictionTimer.setOnFinished(e -> evictIdle());
+        }
+        evictionTimer.playFromStart();
+    }
+
+    private Deque<PooledStage> idleFor(Window owner) {
+        return pool.computeIfAbsent(owner, o -> new ArrayDeque<>());
+    }
+
+    private PooledStage create(Window owner) {
+        Stage stage = new Stage(StageStyle.UNDECORATED);
+        if (owner != null) {
+            stage.initOwner(owner);
+        }
+        stage.setAlwaysOnTop(true);
+        GridPane grid = new GridPane();
+        grid.getStyleClass().add("fxalert-flash");
+        grid.setPadding(new Insets(25));
+        grid.setVgap(10);
+        grid.setHgap(20);
+        stage.setScene(new Scene(grid));
+        createdCount++;
+        return new PooledStage(stage, grid, owner);
+    }
+
+    /**
+     * Closes Stages that have been idle longer than the idle timeout,
+     * keeping the warm, owner-less Stages.
+     */
+    private void evictIdle() {
+        evict(System.nanoTime() - (long) (idleTimeout.toMillis() * 1_000_000L));
+        if (idleCount > Math.min(warmSize, idleFor(null).size())) {
+            scheduleEviction();
+        }
+    }
+
+    private void evict(long idleBefore) {
+        Iterator<Map.Entry<Window, Deque<PooledStage>>> it = pool.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Window, Deque<PooledStage>> entry = it.next();
+            Deque<PooledStage> idle = entry.getValue();
+            int keep = entry.getKey() == null ? warmSize : 0;
+            boolean ownerGone = entry.getKey() != null && !entry.getKey().isShowing();
+            while (!idle.isEmpty() && (idleCount > maxSize || ownerGone
+                || (idle.size() > keep && idle.peekFirst().idleSince < idleBefore))) {
+                idle.pollFirst().stage.close();
+                idleCount--;
+            }
+            if (idle.isEmpty() && entry.getKey() != null) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * A pooled flash Stage and the GridPane acting as its Scene's root.
+     */
+    static final class PooledStage {
+
+        PooledStage(Stage stage, GridPane grid, Window owner) {
+            this.stage = stage;
+            this.grid = grid;
+            this.owner = owner;
+        }
+
+        private void reset() {
+            grid.getChildren().clear();
+            grid.setStyle(null);
+            grid.getStylesheets().clear();
+            stage.setOnHidden(null);
+            stage.getIcons().clear();
+            stage.setOpacity(1);
+        }
+
+        final Stage stage;
+        final GridPane grid;
+        final Window owner;
+        private long idleSince;
+    }
+
+    private final Map<Window, Deque<PooledStage>> pool = new HashMap<>();
+    private PauseTransition evictionTimer;
+    private Duration idleTimeout = Duration.seconds(30);
+    private int warmSize = 2;
+    private int maxSize = 10;
+    private int idleCount;
+    private long createdCount;
+
+}
@@ -0,0 +1,266 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@code ChoiceSource} over an in-memory array of choices, searched by
+ * fuzzy matching: a choice matches if it contains the query's characters
+ * in order, ignoring case, so "jpmcs" matches "JPMorgan Chase". Matches
+ * at word starts and consecutive matches score higher, gaps lower.
+ * Choices are scored in parallel on the common fork/join pool, each task
+ * keeping only the best {@code limit} matches in a heap. A search stops
+ * early when its calling thread is interrupted.
+ */
+public class FuzzyChoiceSource implements ChoiceSource<String> {
+
+    /**
+     * Creates a fuzzy searchable source of choices.
+     * @param choices Choices for the user to choose from, in display order
+     */
+    public FuzzyChoiceSource(String... choices) {
+        if (choices == null) {
+            throw new IllegalArgumentException("choices must not be null");
+        }
+        this.choices = choices.clone();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int count() {
+        return choices.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> page(int offset, int limit) {
+        int from = Math.min(offset, choices.length);
+        return Arrays.asList(choices).subList(from, Math.min(from + limit, choices.length));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> search(String query, int limit) {
+        if (query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Ranking ranking = new Ranking(ChoiceIndex.toLowerCase(query), limit, 0, choices.length);
+        ForkJoinPool.commonPool().execute(ranking);
+        long[] top;
+        try {
+            top = ranking.get();
+        } catch (InterruptedException e) {
+            ranking.cancelled.set(true);
+            Thread.currentThread().interrupt();
+            return List.of();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ranking failed", e.getCause());
+        }
+        Arrays.sort(top);
+        List<String> ranked = new ArrayList<>(top.length);
+        for (int i = top.length - 1; i >= 0; i--) {
+            ranked.add(choices[index(top[i])]);
+        }
+        return ranked;
+    }
+
+    /**
+     * Scores how well a choice matches a query.
+     * @param choice The choice
+     * @param query The lower case query characters
+     * @return The score, or {@code NO_MATCH} if the choice does
+     * not contain the query's characters in order
+     */
+    static int score(String choice, char[] query) {
+        int score = 0;
+        int q = 0;
+        int lastMatch = -1;
+        for (int i = 0; i < choice.length() && q < query.length; i++) {
+            char c = choice.charAt(i);
+            if (Character.toLowerCase(c) != query[q]) {
+                continue;
+            }
+            score += MATCH;
+            if (lastMatch == i - 1) {
+                score += CONSECUTIVE;
+            } else if (lastMatch >= 0) {
+                score -= Math.min(i - lastMatch - 1, MAX_GAP_PENALTY);
+            }
+            if (isWordStart(choice, i)) {
+                score += WORD_START;
+            }
+            lastMatch = i;
+            q++;
+        }
+        return q == query.length ? score : NO_MATCH;
+    }
+
+    private static boolean isWordStart(String s, int i) {
+        if (i == 0) {
+            return true;
+        }
+        char prev = s.charAt(i - 1);
+        char c = s.charAt(i);
+        return !Character.isLetterOrDigit(prev)
+            || (Character.isLowerCase(prev) && Character.isUpperCase(c));
+    }
+
+    /**
+     * Packs a score and choice index into a long that orders by score,
+     * then by lower index.
+     */
+    private static long key(int score, int index) {
+        return (long) score << 32 | (Integer.MAX_VALUE - index);
+    }
+
+    private static int index(long key) {
+        return Integer.MAX_VALUE - (int) key;
+    }
+
+    /**
+     * Ranks a range of the choices, splitting it across the pool. Returns
+     * the keys of the best matches as a min-heap of at most {@code limit}.
+     */
+    private final class Ranking extends RecursiveTask<long[]> {
+
+        private Ranking(char[] query, int limit, int from, int to) {
+            this(query, limit, from, to, new AtomicBoolean());
+        }
+
+        private Ranking(char[] query, int limit, int from, int to, AtomicBoolean cancelled) {
+            this.query = query;
+            this.limit = limit;
+            this.from = from;
+            this.to = to;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > SPLIT_SIZE) {
+                int mid = (from + to) >>> 1;
+                Ranking left = new Ranking(query, limit, from, mid, cancelled);
+                left.fork();
+                long[] right = new Ranking(query, limit, mid, to, cancelled).compute();
+                return merge(left.join(), right);
+            }
+            TopK top = new TopK(limit);
+            for (int i = from; i < to; i++) {
+                if ((i & CANCEL_CHECK_MASK) == 0 && cancelled.get()) {
+                    break;
+                }
+                int score = score(choices[i], query);
+                if (score != NO_MATCH) {
+                    top.offer(key(score, i));
+                }
+            }
+            return top.toArray();
+        }
+
+        private long[] merge(long[] a, long[] b) {
+            TopK top = new TopK(limit);
+            for (long key : a) {
+                top.offer(key);
+            }
+            for (long key : b) {
+                top.offer(key);
+            }
+            return top.toArray();
+        }
+
+        private static final long serialVersionUID = 1L;
+        private final char[] query;
+        private final int limit;
+        private final int from;
+        private final int to;
+        // shared by all tasks of one search
+        private final AtomicBoolean cancelled;
+    }
+
+    /**
+     * Bounded min-heap of packed keys, keeping the largest.
+     */
+    private static final class TopK {
+
+        private TopK(int limit) {
+            this.heap = new long[Math.min(limit, 64)];
+            this.limit = limit;
+        }
+
+        private void offer(long key) {
+            if (size < limit) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, Math.min(limit, size * 2));
+                }
+                int i = size++;
+                while (i > 0 && heap[(i - 1) >>> 1] > key) {
+                    heap[i] = heap[(i - 1) >>> 1];
+                    i = (i - 1) >>> 1;
+                }
+                heap[i] = key;
+            } else if (key > heap[0]) {
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) {
+                        break;
+                    }
+                    if (child + 1 < size && heap[child + 1] < heap[child]) {
+                        child++;
+                    }
+                    if (heap[child] >= key) {
+                        break;
+                    }
+                    heap[i] = heap[child];
+                    i = child;
+                }
+                heap[i] = key;
+            }
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(heap, size);
+        }
+
+        private long[] heap;
+        private final int limit;
+        private int size;
+    }
+
+    static final int NO_MATCH = Integer.MIN_VALUE;
+    private static final int MATCH = 16;
+    private static final int CONSECUTIVE = 8;
+    private static final int WORD_START = 10;
+    private static final int MAX_GAP_PENALTY = 6;
+    private static final int SPLIT_SIZE = 8192;
+    private static final int CANCEL_CHECK_MASK = 1023;
+    private final String[] choices;
+
+}
@@ -0,0 +1,87 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Window;
+
+/**
+ * Creates graphics for dialogs and flash notifications from image URLs.
+ * Images are decoded in the background at the size they are displayed
+ * at, through {@code FXAlert.getImageCache()}, so showing a graphic
+ * never waits for decoding and large images are never decoded in full.
+ */
+final class Graphics {
+
+    private Graphics() {
+        super();
+    }
+
+    /**
+     * Returns a graphic of the given size, showing an empty placeholder
+     * of that size until the image has loaded.
+     * @param url The image's URL
+     * @param width The graphic's width
+     * @param height The graphic's height
+     * @return The graphic
+     */
+    static Node sized(String url, double width, double height) {
+        ImageView view = new ImageView(FXAlert.getImageCache().load(url, width, height));
+        view.setFitWidth(width);
+        view.setFitHeight(height);
+        view.setPreserveRatio(true);
+        view.setSmooth(true);
+        StackPane box = new StackPane(view);
+        box.setMinSize(width, height);
+        box.setPrefSize(width, height);
+        box.setMaxSize(width, height);
+        return box;
+    }
+
+    /**
+     * Returns a graphic showing the image at its own size. As the size
+     * is not known until the image has loaded, the window showing the
+     * graphic is resized to fit once it has.
+     * @param url The image's URL
+     * @return The graphic
+     */
+    static Node natural(String url) {
+        Image image = FXAlert.getImageCache().load(url, 0, 0);
+        ImageView view = new ImageView(image);
+        if (image.getProgress() < 1) {
+            image.progressProperty().addListener((obs, oldProgress, progress) -> {
+                if (progress.doubleValue() >= 1 && !image.isError()) {
+                    FXDispatcher.execute(() -> fitWindow(view));
+                }
+            });
+        }
+        return view;
+    }
+
+    private static void fitWindow(Node node) {
+        Scene scene = node.getScene();
+        Window window = scene == null ? null : scene.getWindow();
+        if (window != null && window.isShowing()) {
+            window.sizeToScene();
+        }
+    }
+
+}
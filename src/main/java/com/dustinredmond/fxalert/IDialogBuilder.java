@@ -19,6 +19,9 @@ package com.dustinredmond.fxalert;
 import java.net.URL;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 import javafx.event.EventHandler;
 import javafx.scene.Node;
 import javafx.scene.control.ButtonType;
@@ -55,6 +58,16 @@ public interface IDialogBuilder<T> {
      */
     T withStylesheet(String url);
 
+    /**
+     * Applies a theme registered with {@code FXAlert.getThemes()}
+     * to the dialog, by reference to the theme's stylesheet.
+     * @param name The theme's name
+     * @return the dialog builder
+     */
+    default T withTheme(String name) {
+        return withStylesheet(FXAlert.getThemes().getStylesheet(name));
+    }
+
     /**
      * Sets the dialog's header and content texts.
      * @param header Dialog's header text
@@ -101,12 +114,13 @@ public interface IDialogBuilder<T> {
     }
 
     /**
-     * Adds the image at the given path to the dialog's title bar
+     * Adds the image at the given path to the dialog's title bar.
+     * The image is decoded once and shared via {@code FXAlert.getImageCache()}
      * @param imagePath Path to an icon image
      * @return the dialog builder
      */
     default T withTitleBarIcon(String imagePath) {
-        return withTitleBarIcon(new Image(imagePath));
+        return withTitleBarIcon(FXAlert.getImageCache().get(imagePath));
     }
 
     /**
@@ -115,7 +129,7 @@ public interface IDialogBuilder<T> {
      * @return the dialog builder
      */
     default T withTitleBarIcon(URL url) {
-        return withTitleBarIcon(new Image(url.toExternalForm()));
+        return withTitleBarIcon(FXAlert.getImageCache().get(url.toExternalForm()));
     }
 
     /**
@@ -124,7 +138,7 @@ public interface IDialogBuilder<T> {
      * @return the dialog builder
      */
     default T withTitleBarIcon(Path path) {
-        return withTitleBarIcon(new Image(path.toFile().getAbsolutePath()));
+        return withTitleBarIcon(FXAlert.getImageCache().get(path.toUri().toString()));
     }
 
     /**
@@ -134,24 +148,54 @@ public interface IDialogBuilder<T> {
      */
     T withGraphic(Node node);
 
+    /**
+     * Adds a Graphic created by the supplier for each dialog, so
+     * that a spec of this builder may show several dialogs at once.
+     * The default implementation creates a single Node and passes
+     * it to {@code withGraphic(Node)}
+     * @param graphic Creates the Node to act as a Graphic
+     * @return the dialog builder
+     */
+    default T withGraphic(Supplier<? extends Node> graphic) {
+        return withGraphic(graphic.get());
+    }
+
     /**
      * Adds the image at the given path as the Alert
-     * or Dialog's Graphic
+     * or Dialog's Graphic. The image is loaded in the
+     * background, the dialog is resized once it has loaded
      * @param imagePath Path to an image
      * @return the dialog builder
      */
     default T withGraphic(String imagePath) {
-        return withGraphic(new ImageView(imagePath));
+        return withGraphic(() -> Graphics.natural(imagePath));
+    }
+
+    /**
+     * Adds the image at the given path as the Alert or Dialog's
+     * Graphic, decoded in the background to fit within the given size.
+     * Space for the image is reserved until it has loaded
+     * @param imagePath Path to an image
+     * @param width Width of the Graphic
+     * @param height Height of the Graphic
+     * @return the dialog builder
+     */
+    default T withGraphic(String imagePath, double width, double height) {
+        if (!(width > 0) || !(height > 0)) {
+            throw new IllegalArgumentException("width and height must be positive");
+        }
+        return withGraphic(() -> Graphics.sized(imagePath, width, height));
     }
 
     /**
      * Adds the image at the given Path as the Alert
-     * or Dialog's Graphic
+     * or Dialog's Graphic. The image is loaded in the
+     * background, the dialog is resized once it has loaded
      * @param path Path to an image
      * @return the dialog builder
      */
     default T withGraphic(Path path) {
-        return withGraphic(new ImageView(path.toFile().getAbsolutePath()));
+        return withGraphic(path.toUri().toString());
     }
 
     /**
@@ -287,4 +331,30 @@ public interface IDialogBuilder<T> {
      * Shows an alert, without waiting for a result.
      */
     void show();
+
+    /**
+     * Shows the dialog without blocking and without entering a nested
+     * event loop. May be called from any thread. The returned stage is
+     * completed on the JavaFX Application thread once the dialog is hidden,
+     * with the same result {@code showAndWait()} would have returned.
+     * The default implementation calls {@code showAsync(null)}.
+     * @return A CompletionStage of the dialog's Optional result
+     */
+    default CompletionStage<? extends Optional<?>> showAsync() {
+        return showAsync(null);
+    }
+
+    /**
+     * Shows the dialog without blocking and without entering a nested
+     * event loop. May be called from any thread. The returned stage is
+     * completed by the given Executor once the dialog is hidden, so that
+     * dependent actions run there rather than on the JavaFX Application thread.
+     * The default implementation throws {@code UnsupportedOperationException}.
+     * @param executor Executor on which to complete the returned stage,
+     *                 or null to complete it on the JavaFX Application thread
+     * @return A CompletionStage of the dialog's Optional result
+     */
+    default CompletionStage<? extends Optional<?>> showAsync(Executor executor) {
+        throw new UnsupportedOperationException("showAsync is not supported by " + getClass().getName());
+    }
 }
@@ -0,0 +1,380 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javafx.scene.image.Image;
+
+/**
+ * Process-wide cache of decoded Images, keyed by URL and requested size,
+ * used by the builders' {@code withTitleBarIcon} and {@code withGraphic}
+ * methods that take a path or URL. The most recently used images are held
+ * strongly up to a byte budget; beyond it, images are only softly
+ * referenced and left to the garbage collector. Concurrent requests for
+ * an image that is not cached yet decode it only once.
+ * Accessed via {@code FXAlert.getImageCache()}, safe to use from any thread.
+ */
+public class ImageCache {
+
+    ImageCache() {
+        super();
+    }
+
+    /**
+     * Returns the image at the given URL, decoded at its full size.
+     * @param url The image's URL
+     * @return The cached or newly decoded Image
+     */
+    public Image get(String url) {
+        return get(url, 0, 0);
+    }
+
+    /**
+     * Returns the image at the given URL, decoded to fit within the
+     * requested size, preserving its aspect ratio.
+     * @param url The image's URL
+     * @param width Requested width, 0 for the image's own width
+     * @param height Requested height, 0 for the image's own height
+     * @return The cached or newly decoded Image
+     */
+    public Image get(String url, double width, double height) {
+        return get(url, width, height, false);
+    }
+
+    /**
+     * Returns the image at the given URL, decoded in the background to fit
+     * within the requested size, preserving its aspect ratio. The Image is
+     * returned at once and may still be loading; an ImageView showing it
+     * updates once it is ready. Images that fail to load are not cached.
+     * @param url The image's URL
+     * @param width Requested width, 0 for the image's own width
+     * @param height Requested height, 0 for the image's own height
+     * @return The cached or newly loading Image
+     */
+    public Image load(String url, double width, double height) {
+        return get(url, width, height, true);
+    }
+
+    private Image get(String url, double width, double height, boolean background) {
+        if (url == null) {
+            throw new IllegalArgumentException("url must not be null");
+        }
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("width and height must not be negative");
+        }
+        Key key = new Key(url, width, height, background);
+        Image image = lookup(key);
+        if (image != null) {
+            hits.increment();
+            return image;
+        }
+        CompletableFuture<Image> loading = new CompletableFuture<>();
+        CompletableFuture<Image> existing = inFlight.putIfAbsent(key, loading);
+        if (existing != null) {
+            hits.increment();
+            return existing.join();
+        }
+        try {
+            image = lookup(key);
+            if (image == null) {
+                misses.increment();
+                image = decode(key);
+                if (!image.isError()) {
+                    store(key, image);
+                }
+                if (background) {
+                    watch(key, image);
+                }
+            } else {
+                hits.increment();
+            }
+            loading.complete(image);
+            return image;
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, loading);
+        }
+    }
+
+    /**
+     * Sets how many bytes of decoded images are held strongly.
+     * Images beyond the budget may be reclaimed by the garbage collector.
+     * @param maxBytes The byte budget
+     */
+    public void setMaxBytes(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative");
+        }
+        synchronized (recent) {
+            this.maxBytes = maxBytes;
+            trim();
+        }
+    }
+
+    /**
+     * Returns how many bytes of decoded images are held strongly.
+     * @return The byte budget
+     */
+    public long getMaxBytes() {
+        synchronized (recent) {
+            return maxBytes;
+        }
+    }
+
+    /**
+     * Returns the estimated size of the strongly held images.
+     * @return Bytes held, at 4 bytes per pixel
+     */
+    public long getStrongBytes() {
+        synchronized (recent) {
+            return strongBytes;
+        }
+    }
+
+    /**
+     * Returns the number of requests served without decoding,
+     * including requests that waited for another thread's decode.
+     * @return Number of cache hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of requests that decoded an image.
+     * @return Number of cache misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the fraction of requests served without decoding.
+     * @return Hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * Removes all images from the cache.
+     */
+    public void clear() {
+        synchronized (recent) {
+            recent.clear();
+            strongBytes = 0;
+        }
+        soft.clear();
+    }
+
+    private Image decode(Key key) {
+        return new Image(key.url, key.width, key.height, true, true, key.background);
+    }
+
+    /**
+     * Follows an image loading in the background: it is removed if it
+     * fails to load, and re-accounted at its actual size once loaded.
+     */
+    private void watch(Key key, Image image) {
+        image.errorProperty().addListener((obs, wasError, error) -> {
+            if (error) {
+                remove(key, image);
+            }
+        });
+        image.progressProperty().addListener((obs, oldProgress, progress) -> {
+            if (progress.doubleValue() >= 1) {
+                loaded(key, image);
+            }
+        });
+        if (image.getProgress() >= 1) {
+            loaded(key, image);
+        }
+    }
+
+    private void loaded(Key key, Image image) {
+        synchronized (recent) {
+            Entry entry = recent.get(key);
+            if (entry != null && entry.image == image) {
+                long bytes = bytes(key, image);
+                strongBytes += bytes - entry.bytes;
+                entry.bytes = bytes;
+                trim();
+            }
+        }
+    }
+
+    private void remove(Key key, Image image) {
+        soft.remove(key);
+        synchronized (recent) {
+            Entry entry = recent.get(key);
+            if (entry != null && entry.image == image) {
+                recent.remove(key);
+                strongBytes -= entry.bytes;
+            }
+        }
+    }
+
+    private Image lookup(Key key) {
+        expunge();
+        synchronized (recent) {
+            Entry entry = recent.get(key);
+            if (entry != null) {
+                return entry.image;
+            }
+        }
+        SoftReference<Image> ref = soft.get(key);
+        Image image = ref == null ? null : ref.get();
+        if (image != null) {
+            // reclaimed from the soft tier, hold it strongly again
+            synchronized (recent) {
+                hold(key, image);
+            }
+        }
+        return image;
+    }
+
+    private void store(Key key, Image image) {
+        soft.put(key, new KeyedReference(key, image, queue));
+        synchronized (recent) {
+            hold(key, image);
+        }
+    }
+
+    private void hold(Key key, Image image) {
+        Entry entry = recent.get(key);
+        if (entry == null) {
+            entry = new Entry(image, bytes(key, image));
+            recent.put(key, entry);
+            strongBytes += entry.bytes;
+        }
+        trim();
+    }
+
+    private void trim() {
+        Iterator<Entry> it = recent.values().iterator();
+        while (strongBytes > maxBytes && it.hasNext()) {
+            strongBytes -= it.next().bytes;
+            it.remove();
+        }
+    }
+
+    private void expunge() {
+        Object ref;
+        while ((ref = queue.poll()) != null) {
+            KeyedReference keyed = (KeyedReference) ref;
+            soft.remove(keyed.key, keyed);
+        }
+    }
+
+    /**
+     * Estimates an image's decoded size. Images still loading in the
+     * background are counted at their requested size until loaded.
+     */
+    private static long bytes(Key key, Image image) {
+        if (image.getProgress() < 1) {
+            return (long) key.width * (long) key.height * 4;
+        }
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+
+    /**
+     * The URL and requested size of a cached image, and whether
+     * it was loaded in the background.
+     */
+    private static final class Key {
+
+        private Key(String url, double width, double height, boolean background) {
+            this.url = url;
+            this.width = width;
+            this.height = height;
+            this.background = background;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return url.equals(other.url) && width == other.width && height == other.height
+                && background == other.background;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(url, width, height, background);
+        }
+
+        private final String url;
+        private final double width;
+        private final double height;
+        private final boolean background;
+    }
+
+    /**
+     * A strongly held image and the bytes it is accounted for.
+     */
+    private static final class Entry {
+
+        private Entry(Image image, long bytes) {
+            this.image = image;
+            this.bytes = bytes;
+        }
+
+        private final Image image;
+        private long bytes;
+    }
+
+    /**
+     * Soft reference remembering its key, so it can be removed
+     * from the cache once its image has been collected.
+     */
+    private static final class KeyedReference extends SoftReference<Image> {
+
+        private KeyedReference(Key key, Image image, ReferenceQueue<Image> queue) {
+            super(image, queue);
+            this.key = key;
+        }
+
+        private final Key key;
+    }
+
+    private final Map<Key, Entry> recent = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Key, SoftReference<Image>> soft = new ConcurrentHashMap<>();
+    private final Map<Key, CompletableFuture<Image>> inFlight = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Image> queue = new ReferenceQueue<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long maxBytes = 32L * 1024 * 1024;
+    private long strongBytes;
+
+}
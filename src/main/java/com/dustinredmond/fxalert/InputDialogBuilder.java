@@ -20,16 +20,21 @@ import javafx.event.EventHandler;
 import javafx.scene.Node;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.DialogEvent;
-import javafx.scene.control.TextFormatter;
 import javafx.scene.control.TextInputDialog;
 import javafx.scene.image.Image;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import javafx.stage.Window;
+import javafx.util.Duration;
 
+import java.math.BigDecimal;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Builder-style syntax for creating
@@ -38,7 +43,21 @@ import java.util.regex.Pattern;
 public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
 
     public InputDialogBuilder() {
-        dialog = new TextInputDialog();
+        dialog = new LazyDialog<>(TextInputDialog::new, false);
+    }
+
+    private InputDialogBuilder(LazyDialog<TextInputDialog, String> dialog) {
+        this.dialog = dialog;
+    }
+
+    /**
+     * Creates an InputDialogBuilder that only records its configuration.
+     * The TextInputDialog is created when it is first shown or built, so,
+     * until then, the builder may be used from any thread. See {@code toSpec()}.
+     * @return InputDialogBuilder API
+     */
+    public static InputDialogBuilder lazy() {
+        return new InputDialogBuilder(new LazyDialog<>(TextInputDialog::new, true));
     }
 
     /**
@@ -46,9 +65,11 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      */
     @Override
     public InputDialogBuilder withText(String title, String header, String content) {
-        dialog.setTitle(title);
-        dialog.setHeaderText(header);
-        dialog.setContentText(content);
+        dialog.apply(d -> {
+            d.setTitle(title);
+            d.setHeaderText(header);
+            d.setContentText(content);
+        });
         return this;
     }
 
@@ -57,7 +78,7 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      */
     @Override
     public InputDialogBuilder withStyle(String style) {
-        dialog.getDialogPane().setStyle(style);
+        dialog.apply(d -> d.getDialogPane().setStyle(style));
         return this;
     }
 
@@ -66,7 +87,7 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      */
     @Override
     public InputDialogBuilder withStylesheet(String url) {
-        dialog.getDialogPane().getStylesheets().add(url);
+        dialog.addStylesheet(url);
         return this;
     }
 
@@ -75,7 +96,7 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      */
     @Override
     public InputDialogBuilder withTitleBarIcon(Image image) {
-        ((Stage) dialog.getDialogPane().getScene().getWindow()).getIcons().add(image);
+        dialog.apply(d -> ((Stage) d.getDialogPane().getScene().getWindow()).getIcons().add(image));
         return this;
     }
 
@@ -84,7 +105,16 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      */
     @Override
     public InputDialogBuilder withGraphic(Node graphic) {
-        dialog.setGraphic(graphic);
+        dialog.apply(d -> d.setGraphic(graphic));
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputDialogBuilder withGraphic(Supplier<? extends Node> graphic) {
+        dialog.apply(d -> d.setGraphic(graphic.get()));
         return this;
     }
 
@@ -93,8 +123,10 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      */
     @Override
     public InputDialogBuilder withButtonTypes(ButtonType... buttonTypes) {
-        dialog.getDialogPane().getButtonTypes().clear();
-        dialog.getDialogPane().getButtonTypes().addAll(buttonTypes);
+        dialog.apply(d -> {
+            d.getDialogPane().getButtonTypes().clear();
+            d.getDialogPane().getButtonTypes().addAll(buttonTypes);
+        });
         return this;
     }
 
@@ -121,7 +153,7 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      */
     @Override
     public InputDialogBuilder withContent(Node content) {
-        dialog.getDialogPane().setContent(content);
+        dialog.apply(d -> d.getDialogPane().setContent(content));
         return this;
     }
 
@@ -130,8 +162,10 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      */
     @Override
     public InputDialogBuilder withExpandableContent(Node content, boolean expanded) {
-        dialog.getDialogPane().setExpandableContent(content);
-        dialog.getDialogPane().setExpanded(expanded);
+        dialog.apply(d -> {
+            d.getDialogPane().setExpandableContent(content);
+            d.getDialogPane().setExpanded(expanded);
+        });
         return this;
     }
 
@@ -140,7 +174,7 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      */
     @Override
     public InputDialogBuilder resizable(boolean resizable) {
-        dialog.setResizable(resizable);
+        dialog.apply(d -> d.setResizable(resizable));
         return this;
     }
 
@@ -158,8 +192,10 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      */
     @Override
     public InputDialogBuilder at(double x, double y) {
-        dialog.setX(x);
-        dialog.setY(y);
+        dialog.apply(d -> {
+            d.setX(x);
+            d.setY(y);
+        });
         return this;
     }
 
@@ -168,8 +204,11 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      */
     @Override
     public InputDialogBuilder withSize(double width, double height) {
-        dialog.setWidth(width);
-        dialog.setHeight(height);
+        dialog.markSized();
+        dialog.apply(d -> {
+            d.setWidth(width);
+            d.setHeight(height);
+        });
         return this;
     }
 
@@ -178,7 +217,7 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      */
     @Override
     public InputDialogBuilder onClose(EventHandler<DialogEvent> e) {
-        dialog.setOnCloseRequest(e);
+        dialog.apply(d -> d.setOnCloseRequest(e));
         return this;
     }
 
@@ -187,7 +226,7 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      */
     @Override
     public InputDialogBuilder onHidden(EventHandler<DialogEvent> e) {
-        dialog.setOnHidden(e);
+        dialog.apply(d -> d.setOnHidden(e));
         return this;
     }
 
@@ -196,7 +235,7 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      */
     @Override
     public InputDialogBuilder onHiding(EventHandler<DialogEvent> e) {
-        dialog.setOnHiding(e);
+        dialog.apply(d -> d.setOnHiding(e));
         return this;
     }
 
@@ -205,7 +244,7 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      */
     @Override
     public InputDialogBuilder onShown(EventHandler<DialogEvent> e) {
-        dialog.setOnShown(e);
+        dialog.apply(d -> d.setOnShown(e));
         return this;
     }
 
@@ -214,7 +253,7 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      */
     @Override
     public InputDialogBuilder onShowing(EventHandler<DialogEvent> e) {
-        dialog.setOnShowing(e);
+        dialog.apply(d -> d.setOnShowing(e));
         return this;
     }
 
@@ -224,8 +263,8 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      */
     @Override
     public Optional<String> showAndWait() {
-        addGlobalIconIfConfigured();
-        return dialog.showAndWait();
+        long requestedAt = System.nanoTime();
+        return Metrics.showing(build(), requestedAt).showAndWait();
     }
 
     /**
@@ -241,23 +280,26 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      * @return Optionally, a String value
      */
     public Optional<String> showAndWaitString() {
-        addGlobalIconIfConfigured();
-        return dialog.showAndWait();
+        long requestedAt = System.nanoTime();
+        return Metrics.showing(build(), requestedAt).showAndWait();
     }
 
     /**
-     * Shows a blocking alert, optionally returns an Integer
+     * Shows a blocking alert, optionally returns an Integer.
+     * Only Integers within range can be entered
      * @return Optionally, an Integer value
      */
     public Optional<Integer> showAndWaitInteger() {
-        addGlobalIconIfConfigured();
-        dialog.getEditor().textProperty().addListener((ov,old,newVal) -> {
-            if (!newVal.matches("\\d+") && !newVal.isEmpty()) {
-                dialog.getEditor().setText(old);
-            }
-        });
-        Optional<String> result = dialog.showAndWait();
-        return Optional.of(Integer.parseInt(result.orElse("0")));
+        return showAndWaitNumber(NumericInput.Kind.INTEGER).map(Integer::parseInt);
+    }
+
+    /**
+     * Shows a blocking alert, optionally returns a Long.
+     * Only Longs within range can be entered
+     * @return Optionally, a Long value
+     */
+    public Optional<Long> showAndWaitLong() {
+        return showAndWaitNumber(NumericInput.Kind.LONG).map(Long::parseLong);
     }
 
     /**
@@ -265,12 +307,136 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      * @return Optionally, a Double
      */
     public Optional<Double> showAndWaitDouble() {
-        addGlobalIconIfConfigured();
-        TextFormatter<String> formatter = new TextFormatter<>(change ->
-            Pattern.compile("\\d*|\\d+.\\d*").matcher(change.getControlNewText()).matches() ? change : null);
-        dialog.getEditor().setTextFormatter(formatter);
-        Optional<String> result = dialog.showAndWait();
-        return Optional.of(Double.parseDouble(result.orElse("0")));
+        return showAndWaitNumber(NumericInput.Kind.DOUBLE).map(Double::parseDouble);
+    }
+
+    /**
+     * Shows a blocking alert, optionally returns a BigDecimal
+     * @return Optionally, a BigDecimal
+     */
+    public Optional<BigDecimal> showAndWaitBigDecimal() {
+        return showAndWaitNumber(NumericInput.Kind.BIG_DECIMAL).map(BigDecimal::new);
+    }
+
+    /**
+     * Sets the locale whose decimal and grouping separators are accepted
+     * by the numeric {@code showAndWait} and {@code showAsync} methods.
+     * Defaults to the default formatting locale.
+     * @param locale The locale
+     * @return The InputDialogBuilder
+     */
+    public InputDialogBuilder withLocale(Locale locale) {
+        if (locale == null) {
+            throw new IllegalArgumentException("locale must not be null");
+        }
+        this.locale = locale;
+        return this;
+    }
+
+    /**
+     * Validates the entered text asynchronously, e.g. against a server,
+     * keeping OK disabled until the current text has been accepted.
+     * Validation starts once the text has not changed for 300ms.
+     * @param validator Called on the JavaFX Application thread with the text,
+     *                  must not block; completes with true if the text is valid
+     * @return The InputDialogBuilder
+     */
+    public InputDialogBuilder withValidator(Function<String, ? extends CompletionStage<Boolean>> validator) {
+        return withValidator(validator, Duration.millis(300));
+    }
+
+    /**
+     * Validates the entered text asynchronously, keeping OK disabled until
+     * the current text has been accepted. Validations of superseded text
+     * are cancelled, and recent results are reused.
+     * @param validator Called on the JavaFX Application thread with the text,
+     *                  must not block; completes with true if the text is valid
+     * @param debounce How long the text must stay unchanged before validating
+     * @return The InputDialogBuilder
+     */
+    public InputDialogBuilder withValidator(Function<String, ? extends CompletionStage<Boolean>> validator,
+                                            Duration debounce) {
+        if (validator == null) {
+            throw new IllegalArgumentException("validator must not be null");
+        }
+        if (debounce == null || debounce.lessThan(Duration.ZERO)) {
+            throw new IllegalArgumentException("debounce must not be negative");
+        }
+        dialog.apply(d -> AsyncValidation.install(d, validator, debounce));
+        return this;
+    }
+
+    /**
+     * Shows the dialog restricted to numbers of the given kind.
+     * @return The normalized number text, "0" if cancelled
+     */
+    private Optional<String> showAndWaitNumber(NumericInput.Kind kind) {
+        long requestedAt = System.nanoTime();
+        NumericInput input = new NumericInput(kind, locale);
+        Optional<String> result = Metrics.showing(input.installOn(build()), requestedAt).showAndWait();
+        return Optional.of(input.normalize(result.orElse("0")));
+    }
+
+    private CompletionStage<Optional<String>> showAsyncNumber(NumericInput.Kind kind) {
+        NumericInput input = new NumericInput(kind, locale);
+        return AsyncDialogs.show(() -> input.installOn(build()), null)
+            .thenApply(result -> Optional.of(input.normalize(result.orElse("0"))));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<Optional<String>> showAsync() {
+        return showAsync(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletionStage<Optional<String>> showAsync(Executor executor) {
+        return AsyncDialogs.show(this::build, executor);
+    }
+
+    /**
+     * Shows a non-blocking dialog accepting only Integers. May be called
+     * from any thread, the returned stage completes on the JavaFX
+     * Application thread.
+     * @return A CompletionStage of the entered Integer
+     */
+    public CompletionStage<Optional<Integer>> showAsyncInteger() {
+        return showAsyncNumber(NumericInput.Kind.INTEGER).thenApply(result -> result.map(Integer::parseInt));
+    }
+
+    /**
+     * Shows a non-blocking dialog accepting only Longs. May be called
+     * from any thread, the returned stage completes on the JavaFX
+     * Application thread.
+     * @return A CompletionStage of the entered Long
+     */
+    public CompletionStage<Optional<Long>> showAsyncLong() {
+        return showAsyncNumber(NumericInput.Kind.LONG).thenApply(result -> result.map(Long::parseLong));
+    }
+
+    /**
+     * Shows a non-blocking dialog accepting only Doubles. May be called
+     * from any thread, the returned stage completes on the JavaFX
+     * Application thread.
+     * @return A CompletionStage of the entered Double
+     */
+    public CompletionStage<Optional<Double>> showAsyncDouble() {
+        return showAsyncNumber(NumericInput.Kind.DOUBLE).thenApply(result -> result.map(Double::parseDouble));
+    }
+
+    /**
+     * Shows a non-blocking dialog accepting only decimal numbers. May be
+     * called from any thread, the returned stage completes on the JavaFX
+     * Application thread.
+     * @return A CompletionStage of the entered BigDecimal
+     */
+    public CompletionStage<Optional<BigDecimal>> showAsyncBigDecimal() {
+        return showAsyncNumber(NumericInput.Kind.BIG_DECIMAL).thenApply(result -> result.map(BigDecimal::new));
     }
 
     /**
@@ -278,7 +444,9 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      * @return The TextInputDialog
      */
     public TextInputDialog build() {
-        return getDialog();
+        TextInputDialog built = dialog.get();
+        addGlobalIconIfConfigured(built);
+        return built;
     }
 
     /**
@@ -286,10 +454,23 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
      * @return The TextInputDialog
      */
     public TextInputDialog getDialog() {
-        return dialog;
+        return dialog.get();
+    }
+
+    /**
+     * Returns an immutable specification of the dialog as configured by
+     * this builder. The spec may be shared between threads, and each time
+     * it is shown, a new TextInputDialog is created. Nodes passed to
+     * {@code withGraphic(Node)}, {@code withContent} or
+     * {@code withExpandableContent} are shared by all of these, so such a
+     * spec can only show one TextInputDialog at a time.
+     * @return The DialogSpec
+     */
+    public DialogSpec<TextInputDialog, String> toSpec() {
+        return dialog.toSpec();
     }
 
-    private void addGlobalIconIfConfigured() {
+    private static void addGlobalIconIfConfigured(TextInputDialog dialog) {
         Stage alertStage = ((Stage) dialog.getDialogPane().getScene().getWindow());
         if (FXAlert.getIconImage() != null) {
             alertStage.getIcons().add(FXAlert.getIconImage());
@@ -298,6 +479,7 @@ public class InputDialogBuilder implements IDialogBuilder<InputDialogBuilder> {
         }
     }
 
-    private final TextInputDialog dialog;
+    private final LazyDialog<TextInputDialog, String> dialog;
+    private volatile Locale locale = Locale.getDefault(Locale.Category.FORMAT);
 
 }
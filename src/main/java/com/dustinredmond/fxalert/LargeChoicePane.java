@@ -0,0 +1,89 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import javafx.collections.FXCollections;
+
+/**
+ * ChoicePane over an in-memory array of choices. The list views the
+ * choices array through the ascending indices returned by
+ * {@code ChoiceIndex.filter()}, so filtering never copies the choices
+ * themselves. Until the index has been built in the background, the
+ * unfiltered list is shown.
+ */
+final class LargeChoicePane extends ChoicePane {
+
+    /**
+     * Creates the pane, showing all choices until the index is built.
+     * @param choices The choices, not copied
+     * @param index Completes with the index of the choices
+     */
+    LargeChoicePane(String[] choices, CompletableFuture<ChoiceIndex> index) {
+        this.choices = choices;
+        show(null);
+        index.thenAccept(built -> FXDispatcher.execute(() -> {
+            this.index = built;
+            filterChanged(filter.getText());
+        }));
+    }
+
+    @Override
+    void filterChanged(String text) {
+        if (index != null) {
+            show(index.filter(text));
+        }
+    }
+
+    /**
+     * Shows the choices at the given indices, keeping the
+     * current selection if it is among them.
+     * @param matches Ascending indices, or null for all choices
+     */
+    private void show(int[] matches) {
+        String selected = list.getSelectionModel().getSelectedItem();
+        list.setItems(FXCollections.observableList(new AbstractList<String>() {
+            @Override
+            public String get(int i) {
+                return choices[matches == null ? i : matches[i]];
+            }
+
+            @Override
+            public int size() {
+                return matches == null ? choices.length : matches.length;
+            }
+        }));
+        int position = -1;
+        if (selected != null && index != null) {
+            int i = index.indexOf(selected);
+            position = matches == null || i < 0 ? i : Arrays.binarySearch(matches, i);
+        }
+        if (position >= 0) {
+            list.getSelectionModel().select(position);
+            list.scrollTo(position);
+        } else if (!list.getItems().isEmpty()) {
+            list.getSelectionModel().select(0);
+            list.scrollTo(0);
+        }
+    }
+
+    private final String[] choices;
+    private ChoiceIndex index;
+
+}
@@ -0,0 +1,176 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javafx.scene.control.Dialog;
+import javafx.stage.Modality;
+import javafx.stage.StageStyle;
+import javafx.stage.Window;
+
+/**
+ * Holds the dialog behind a builder. Every configuration step is
+ * recorded so that it can be turned into a {@code DialogSpec}. In lazy
+ * mode, the dialog itself is only created when first needed, so the
+ * builder may be used from any thread until then.
+ * @param <D> The type of dialog
+ * @param <R> The dialog's result type
+ */
+final class LazyDialog<D extends Dialog<R>, R> {
+
+    /**
+     * Creates a holder for dialogs created by the factory.
+     * @param factory Creates the dialog
+     * @param lazy If false, the dialog is created immediately
+     */
+    LazyDialog(Supplier<? extends D> factory, boolean lazy) {
+        this(lazy, init -> init.applyTo(factory.get()));
+    }
+
+    /**
+     * Creates a holder for dialogs created by the factory, which is
+     * responsible for applying the {@code DialogInit} it is given.
+     * @param lazy If false, the dialog is created immediately
+     * @param factory Creates or reuses a dialog for the given DialogInit
+     */
+    LazyDialog(boolean lazy, Function<DialogInit, ? extends D> factory) {
+        this.factory = factory;
+        String theme = FXAlert.getThemes().getDefaultStylesheet();
+        if (theme != null) {
+            stylesheets.add(theme);
+        }
+        if (!lazy) {
+            long start = System.nanoTime();
+            this.dialog = factory.apply(init());
+            Metrics.constructed(dialog, start);
+        }
+    }
+
+    /**
+     * Creates a holder for an existing dialog. Such a
+     * holder cannot be turned into a {@code DialogSpec}.
+     * @param dialog The existing dialog
+     */
+    LazyDialog(D dialog) {
+        this.factory = null;
+        this.dialog = dialog;
+    }
+
+    /**
+     * Applies the step to the dialog if it exists, and records it.
+     * @param step A configuration step
+     */
+    void apply(Consumer<? super D> step) {
+        if (factory != null) {
+            steps.add(step);
+        }
+        if (dialog != null) {
+            step.accept(dialog);
+        }
+    }
+
+    void initOwner(Window window) {
+        this.initOwner = window;
+        if (dialog != null) {
+            dialog.initOwner(window);
+        }
+    }
+
+    void initModality(Modality modality) {
+        this.initModality = modality;
+        if (dialog != null) {
+            dialog.initModality(modality);
+        }
+    }
+
+    void initStyle(StageStyle style) {
+        this.initStyle = style;
+        if (dialog != null) {
+            dialog.initStyle(style);
+        }
+    }
+
+    void addStylesheet(String url) {
+        this.stylesheets.add(url);
+        if (dialog != null) {
+            dialog.getDialogPane().getStylesheets().add(url);
+        }
+    }
+
+    /**
+     * Records that the dialog's size has been configured.
+     */
+    void markSized() {
+        this.sized = true;
+    }
+
+    boolean isSized() {
+        return sized;
+    }
+
+    /**
+     * Forgets the current dialog, so that the next call to {@code get()}
+     * creates (or borrows) a new one. Used once a pooled dialog has been
+     * handed back to its pool.
+     */
+    void release() {
+        if (factory != null) {
+            dialog = null;
+        }
+    }
+
+    /**
+     * Returns the dialog, creating and configuring it if this holder
+     * is lazy. Must be called on the JavaFX Application thread.
+     * @return The dialog
+     */
+    D get() {
+        if (dialog == null) {
+            dialog = toSpec().create();
+        }
+        return dialog;
+    }
+
+    /**
+     * Returns an immutable specification of the recorded configuration.
+     * @return The DialogSpec
+     */
+    DialogSpec<D, R> toSpec() {
+        if (factory == null) {
+            throw new IllegalStateException("A builder wrapping an existing dialog cannot create a spec");
+        }
+        return new DialogSpec<>(factory, init(), steps, sized);
+    }
+
+    private DialogInit init() {
+        return new DialogInit(initOwner, initModality, initStyle, stylesheets);
+    }
+
+    private final Function<DialogInit, ? extends D> factory;
+    private final List<Consumer<? super D>> steps = new ArrayList<>();
+    private final List<String> stylesheets = new ArrayList<>();
+    private D dialog;
+    private Window initOwner;
+    private Modality initModality;
+    private StageStyle initStyle;
+    private boolean sized;
+
+}
@@ -0,0 +1,252 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * {@code ChoiceSource} reading one choice per line from a file that is
+ * memory-mapped rather than loaded onto the heap. The only per-line data
+ * kept is a {@code long} offset, indexed on the first call to
+ * {@code count()}; lines are decoded only when a page or search result
+ * needs them. Searches match substrings, ignoring case for ASCII letters,
+ * by comparing bytes, so the file's charset must be ASCII-compatible,
+ * such as UTF-8. The file must not change while in use. The file stays
+ * mapped until this object has been garbage-collected, as mappings
+ * cannot be released explicitly.
+ */
+public class MappedFileChoiceSource implements ChoiceSource<String> {
+
+    /**
+     * Maps a UTF-8 file of choices, one per line.
+     * @param file The file
+     * @throws IOException If the file cannot be mapped
+     */
+    public MappedFileChoiceSource(Path file) throws IOException {
+        this(file, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Maps a file of choices, one per line.
+     * @param file The file
+     * @param charset The file's charset, must be ASCII-compatible
+     * @throws IOException If the file cannot be mapped
+     * @throws IllegalArgumentException If the charset does not encode
+     * a line feed as the single byte {@code '\n'}
+     */
+    public MappedFileChoiceSource(Path file, Charset charset) throws IOException {
+        if (file == null || charset == null) {
+            throw new IllegalArgumentException("file and charset must not be null");
+        }
+        if (!charset.canEncode() || !Arrays.equals("\n".getBytes(charset), new byte[] {'\n'})) {
+            throw new IllegalArgumentException("charset must be ASCII-compatible, such as UTF-8");
+        }
+        this.charset = charset;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            this.size = channel.size();
+            int count = (int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_BITS);
+            this.segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long start = (long) i << SEGMENT_BITS;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, size - start));
+            }
+        }
+    }
+
+    /**
+     * Returns the number of lines, indexing the file on first call.
+     * Indexing stops if the calling thread is interrupted, and
+     * is started over by the next call.
+     * @return Number of lines
+     * @throws CancellationException If interrupted while indexing
+     */
+    @Override
+    public int count() {
+        return lineStarts().length - 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> page(int offset, int limit) {
+        long[] starts = lineStarts();
+        int lines = starts.length - 1;
+        int from = Math.min(offset, lines);
+        int to = Math.min(lines, from + limit);
+        List<String> page = new ArrayList<>(to - from);
+        for (int line = from; line < to; line++) {
+            page.add(decode(starts[line], starts[line + 1]));
+        }
+        return page;
+    }
+
+    /**
+     * Returns lines containing the query, ignoring case
+     * for ASCII letters, in file order.
+     * @param query The filter text, never empty
+     * @param limit Maximum number of lines to return
+     * @return Up to {@code limit} matching lines
+     */
+    @Override
+    public List<String> search(String query, int limit) {
+        byte[] needle = query.getBytes(charset);
+        for (int i = 0; i < needle.length; i++) {
+            needle[i] = lower(needle[i]);
+        }
+        long[] starts = lineStarts();
+        List<String> matches = new ArrayList<>();
+        for (int line = 0; line < starts.length - 1 && matches.size() < limit; line++) {
+            if ((line & INTERRUPT_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            long start = starts[line];
+            long end = lineEnd(start, starts[line + 1]);
+            if (contains(start, end, needle)) {
+                matches.add(decode(start, starts[line + 1]));
+            }
+        }
+        return matches;
+    }
+
+    private boolean contains(long start, long end, byte[] needle) {
+        long last = end - needle.length;
+        byte first = needle[0];
+        for (long pos = start; pos <= last; pos++) {
+            if (lower(byteAt(pos)) != first) {
+                continue;
+            }
+            int k = 1;
+            while (k < needle.length && lower(byteAt(pos + k)) == needle[k]) {
+                k++;
+            }
+            if (k == needle.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte lower(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    private byte byteAt(long pos) {
+        return segments[(int) (pos >>> SEGMENT_BITS)].get((int) (pos & SEGMENT_MASK));
+    }
+
+    /**
+     * Returns the end of the line's text, excluding its line terminator.
+     */
+    private long lineEnd(long start, long nextStart) {
+        long end = nextStart;
+        if (end > start && byteAt(end - 1) == '\n') {
+            end--;
+        }
+        if (end > start && byteAt(end - 1) == '\r') {
+            end--;
+        }
+        return end;
+    }
+
+    private String decode(long start, long nextStart) {
+        long end = lineEnd(start, nextStart);
+        byte[] bytes = new byte[(int) (end - start)];
+        int segment = (int) (start >>> SEGMENT_BITS);
+        int offset = (int) (start & SEGMENT_MASK);
+        int copied = 0;
+        while (copied < bytes.length) {
+            ByteBuffer buffer = segments[segment].duplicate();
+            buffer.position(offset);
+            int n = Math.min(bytes.length - copied, buffer.remaining());
+            buffer.get(bytes, copied, n);
+            copied += n;
+            segment++;
+            offset = 0;
+        }
+        return new String(bytes, charset);
+    }
+
+    /**
+     * Returns the offsets at which each line starts, followed by the file
+     * size, scanning the file for line feeds on first call.
+     */
+    private long[] lineStarts() {
+        long[] starts = this.starts;
+        if (starts != null) {
+            return starts;
+        }
+        synchronized (this) {
+            if (this.starts == null) {
+                this.starts = index();
+            }
+            return this.starts;
+        }
+    }
+
+    private long[] index() {
+        long[] starts = new long[1024];
+        int lines = 0;
+        long pos = 0;
+        for (MappedByteBuffer segment : segments) {
+            int limit = segment.limit();
+            for (int i = 0; i < limit; i++) {
+                if ((i & INDEX_INTERRUPT_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Indexing was interrupted");
+                }
+                if (segment.get(i) == '\n') {
+                    if (lines + 2 > starts.length) {
+                        starts = Arrays.copyOf(starts, starts.length * 2);
+                    }
+                    starts[++lines] = pos + i + 1;
+                }
+            }
+            pos += limit;
+        }
+        if (size > starts[lines]) {
+            // last line without a line terminator
+            if (lines + 2 > starts.length) {
+                starts = Arrays.copyOf(starts, starts.length + 1);
+            }
+            starts[++lines] = size;
+        }
+        return Arrays.copyOf(starts, lines + 1);
+    }
+
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+    private static final int INTERRUPT_CHECK_MASK = 4095;
+    private static final int INDEX_INTERRUPT_CHECK_MASK = (1 << 20) - 1;
+    private final Charset charset;
+    private final long size;
+    private final MappedByteBuffer[] segments;
+    private volatile long[] starts;
+
+}
@@ -0,0 +1,204 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.Arrays;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ChoiceDialog;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.TextInputDialog;
+
+/**
+ * Forwards dialog and flash lifecycle events to the registered
+ * {@code DialogMetricsListener}s, starting with the recorder of the
+ * built-in {@code DialogMetrics}. Listeners are kept in a copy-on-write
+ * array, so publishing an event takes no lock. The recorder is never
+ * handed out, so callers cannot remove it.
+ */
+final class Metrics {
+
+    private Metrics() {
+        super();
+    }
+
+    static synchronized void addListener(DialogMetricsListener listener) {
+        DialogMetricsListener[] current = listeners;
+        DialogMetricsListener[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = listener;
+        listeners = next;
+    }
+
+    static synchronized void removeListener(DialogMetricsListener listener) {
+        DialogMetricsListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                DialogMetricsListener[] next = new DialogMetricsListener[current.length - 1];
+                System.arraycopy(current, 0, next, 0, i);
+                System.arraycopy(current, i + 1, next, i, next.length - i);
+                listeners = next;
+                return;
+            }
+        }
+    }
+
+    static DialogMetrics builtIn() {
+        return BUILT_IN;
+    }
+
+    /**
+     * Records the construction of a dialog.
+     * @param dialog The new dialog
+     * @param startedAt When construction started, from {@code System.nanoTime()}
+     */
+    static void constructed(Dialog<?> dialog, long startedAt) {
+        long nanos = System.nanoTime() - startedAt;
+        String kind = kindOf(dialog);
+        for (DialogMetricsListener listener : listeners) {
+            try {
+                listener.dialogConstructed(kind, nanos);
+            } catch (RuntimeException e) {
+                report(e);
+            }
+        }
+    }
+
+    /**
+     * Tracks a dialog that is about to be shown until it is hidden.
+     * @param dialog The dialog
+     * @param <D> The type of dialog
+     * @return The dialog
+     */
+    static <D extends Dialog<?>> D showing(D dialog) {
+        return showing(dialog, System.nanoTime());
+    }
+
+    /**
+     * Tracks a dialog that is about to be shown until it is hidden.
+     * @param dialog The dialog
+     * @param requestedAt When showing the dialog was requested
+     * @param <D> The type of dialog
+     * @return The dialog
+     */
+    static <D extends Dialog<?>> D showing(D dialog, long requestedAt) {
+        String kind = kindOf(dialog);
+        dialog.showingProperty().addListener(new ChangeListener<Boolean>() {
+            @Override
+            public void changed(ObservableValue<? extends Boolean> ov, Boolean wasShowing, Boolean showing) {
+                long now = System.nanoTime();
+                if (showing) {
+                    shownAt = now;
+                    publish(DialogEvent.SHOWN, kind, now - requestedAt);
+                    return;
+                }
+                dialog.showingProperty().removeListener(this);
+                if (dialog.getResult() != null) {
+                    publish(DialogEvent.ANSWERED, kind, now - shownAt);
+                }
+                publish(DialogEvent.HIDDEN, kind, now - shownAt);
+            }
+
+            private long shownAt = requestedAt;
+        });
+        return dialog;
+    }
+
+    static void flashSubmitted(String kind, int queueDepth) {
+        for (DialogMetricsListener listener : listeners) {
+            try {
+                listener.flashSubmitted(kind, queueDepth);
+            } catch (RuntimeException e) {
+                report(e);
+            }
+        }
+    }
+
+    static void flashShown(String kind, long nanos) {
+        publish(DialogEvent.FLASH_SHOWN, kind, nanos);
+    }
+
+    static void flashHidden(String kind, long nanos) {
+        publish(DialogEvent.FLASH_HIDDEN, kind, nanos);
+    }
+
+    static void suppressed(String kind, DialogMetricsListener.Suppression reason) {
+        for (DialogMetricsListener listener : listeners) {
+            try {
+                listener.suppressed(kind, reason);
+            } catch (RuntimeException e) {
+                report(e);
+            }
+        }
+    }
+
+    private static void publish(DialogEvent event, String kind, long nanos) {
+        for (DialogMetricsListener listener : listeners) {
+            try {
+                switch (event) {
+                    case SHOWN:
+                        listener.dialogShown(kind, nanos);
+                        break;
+                    case ANSWERED:
+                        listener.dialogAnswered(kind, nanos);
+                        break;
+                    case HIDDEN:
+                        listener.dialogHidden(kind, nanos);
+                        break;
+                    case FLASH_SHOWN:
+                        listener.flashShown(kind, nanos);
+                        break;
+                    default:
+                        listener.flashHidden(kind, nanos);
+                        break;
+                }
+            } catch (RuntimeException e) {
+                report(e);
+            }
+        }
+    }
+
+    /**
+     * Hands an exception thrown by a listener to the current thread's
+     * uncaught exception handler, so that it cannot break a dialog.
+     */
+    private static void report(RuntimeException e) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+    }
+
+    private static String kindOf(Dialog<?> dialog) {
+        if (dialog instanceof Alert) {
+            return ((Alert) dialog).getAlertType().name();
+        }
+        if (dialog instanceof ChoiceDialog) {
+            return "CHOICE";
+        }
+        if (dialog instanceof TextInputDialog) {
+            return "INPUT";
+        }
+        return dialog.getClass().getSimpleName();
+    }
+
+    private enum DialogEvent {
+        SHOWN, ANSWERED, HIDDEN, FLASH_SHOWN, FLASH_HIDDEN
+    }
+
+    private static final DialogMetrics BUILT_IN = new DialogMetrics();
+    private static volatile DialogMetricsListener[] listeners = {BUILT_IN.recorder()};
+
+}
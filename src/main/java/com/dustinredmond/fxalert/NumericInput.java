@@ -0,0 +1,232 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.scene.control.TextFormatter;
+import javafx.scene.control.TextInputDialog;
+
+/**
+ * Restricts a TextInputDialog's editor to numbers of one {@code Kind},
+ * written with an optional sign, the locale's grouping separator and,
+ * for fractional kinds, its decimal separator. Each edit is checked by a
+ * hand-written scanner over the unchanged text and the inserted text, so
+ * no String is built and nothing is allocated per keystroke. Integer
+ * kinds reject edits that would leave the value out of range. The OK
+ * button is disabled until the text is a complete number.
+ */
+final class NumericInput {
+
+    /**
+     * The type of number accepted.
+     */
+    enum Kind {
+        INTEGER(Integer.MIN_VALUE, Integer.MAX_VALUE, false),
+        LONG(Long.MIN_VALUE, Long.MAX_VALUE, false),
+        DOUBLE(0, 0, true),
+        BIG_DECIMAL(0, 0, true);
+
+        Kind(long min, long max, boolean fractional) {
+            this.min = min;
+            this.max = max;
+            this.fractional = fractional;
+        }
+
+        private final long min;
+        private final long max;
+        private final boolean fractional;
+    }
+
+    NumericInput(Kind kind, Locale locale) {
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        this.kind = kind;
+        this.decimal = symbols.getDecimalSeparator();
+        this.grouping = symbols.getGroupingSeparator();
+        this.minus = symbols.getMinusSign();
+        this.zero = symbols.getZeroDigit();
+    }
+
+    /**
+     * Installs this input on the dialog's editor, replacing any previous
+     * numeric input. Text that is not a valid number is cleared.
+     * @param dialog The dialog
+     * @return The dialog
+     */
+    TextInputDialog installOn(TextInputDialog dialog) {
+        String text = dialog.getEditor().getText();
+        if (text != null && !scan(text, 0, text.length())) {
+            dialog.getEditor().clear();
+        }
+        BooleanProperty complete = new SimpleBooleanProperty(isComplete());
+        dialog.getEditor().setTextFormatter(new TextFormatter<>(change -> {
+            if (!accepts(change)) {
+                return null;
+            }
+            complete.set(isComplete());
+            return change;
+        }));
+        OkGate.of(dialog).require(NumericInput.class, complete);
+        return dialog;
+    }
+
+    /**
+     * Converts accepted text into the form expected by
+     * {@code Integer.parseInt}, {@code Double.parseDouble},
+     * {@code new BigDecimal} and so on.
+     * @param text Text accepted by this input
+     * @return Text without grouping, with ASCII digits,
+     * '-' sign and '.' decimal separator
+     */
+    String normalize(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int digit = digit(c);
+            if (digit >= 0) {
+                sb.append((char) ('0' + digit));
+            } else if (c == '-' || c == minus) {
+                sb.append('-');
+            } else if (c == decimal) {
+                sb.append('.');
+            }
+        }
+        return sb.length() == 0 || sb.length() == 1 && sb.charAt(0) == '-' ? "0" : sb.toString();
+    }
+
+    private boolean accepts(TextFormatter.Change change) {
+        String control = change.getControlText();
+        String inserted = change.getText();
+        reset();
+        return feed(control, 0, change.getRangeStart())
+            && feed(inserted, 0, inserted.length())
+            && feed(control, change.getRangeEnd(), control.length());
+    }
+
+    private boolean scan(String text, int from, int to) {
+        reset();
+        return feed(text, from, to);
+    }
+
+    private void reset() {
+        started = false;
+        negative = false;
+        digits = 0;
+        integerDigits = 0;
+        value = 0;
+        afterDigit = false;
+        afterGrouping = false;
+        fraction = false;
+    }
+
+    private boolean feed(String s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!feed(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean feed(char c) {
+        boolean first = !started;
+        started = true;
+        int digit = digit(c);
+        if (digit >= 0) {
+            afterDigit = true;
+            afterGrouping = false;
+            digits++;
+            return fraction || addIntegerDigit(digit);
+        }
+        if (first && (c == '-' || c == minus || c == '+')) {
+            negative = c != '+';
+            return true;
+        }
+        if (isGrouping(c) && afterDigit && !fraction) {
+            afterDigit = false;
+            afterGrouping = true;
+            return true;
+        }
+        if (c == decimal && kind.fractional && !fraction && !afterGrouping) {
+            fraction = true;
+            afterDigit = false;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Accumulates the value negatively, like {@code Long.parseLong},
+     * so that the minimum value does not overflow.
+     * @return false if the value leaves the kind's range
+     */
+    private boolean addIntegerDigit(int digit) {
+        if (value == 0 && digit == 0) {
+            return true;
+        }
+        integerDigits++;
+        if (kind.fractional) {
+            return integerDigits <= MAX_DOUBLE_INTEGER_DIGITS || kind == Kind.BIG_DECIMAL;
+        }
+        long limit = negative ? kind.min : -kind.max;
+        if (value < limit / 10) {
+            return false;
+        }
+        value *= 10;
+        if (value < limit + digit) {
+            return false;
+        }
+        value -= digit;
+        return true;
+    }
+
+    private boolean isComplete() {
+        return digits > 0 && !afterGrouping;
+    }
+
+    private boolean isGrouping(char c) {
+        // allow typing a plain space for locales grouping with non-breaking spaces
+        return c == grouping || (Character.isSpaceChar(grouping) && c == ' ');
+    }
+
+    private int digit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        int digit = c - zero;
+        return digit >= 0 && digit <= 9 ? digit : -1;
+    }
+
+    // largest number of integer digits that cannot overflow a double
+    private static final int MAX_DOUBLE_INTEGER_DIGITS = 308;
+    private final Kind kind;
+    private final char decimal;
+    private final char grouping;
+    private final char minus;
+    private final char zero;
+    private boolean started;
+    private boolean negative;
+    private int digits;
+    private int integerDigits;
+    private long value;
+    private boolean afterDigit;
+    private boolean afterGrouping;
+    private boolean fraction;
+
+}
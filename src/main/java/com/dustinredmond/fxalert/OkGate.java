@@ -0,0 +1,75 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javafx.beans.binding.Bindings;
+import javafx.beans.value.ObservableBooleanValue;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.Node;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+
+/**
+ * Keeps a dialog's OK button disabled while any of several independent
+ * conditions, such as numeric input or async validation, is unmet.
+ * Each condition is registered under a key, and registering again
+ * under the same key replaces it. Stored in the DialogPane's properties.
+ */
+final class OkGate {
+
+    private OkGate(Dialog<?> dialog) {
+        this.dialog = dialog;
+    }
+
+    /**
+     * Returns the dialog's gate, creating it on first use.
+     * @param dialog The dialog
+     * @return The OkGate
+     */
+    static OkGate of(Dialog<?> dialog) {
+        return (OkGate) dialog.getDialogPane().getProperties()
+            .computeIfAbsent(OkGate.class, k -> new OkGate(dialog));
+    }
+
+    /**
+     * Requires a condition to be true for the OK button to be enabled.
+     * @param key Identifies the condition
+     * @param satisfied The condition
+     */
+    void require(Object key, ObservableBooleanValue satisfied) {
+        conditions.put(key, satisfied);
+        Node ok = dialog.getDialogPane().lookupButton(ButtonType.OK);
+        if (ok == null) {
+            return;
+        }
+        ObservableValue<?>[] dependencies = conditions.values().toArray(new ObservableValue<?>[0]);
+        ok.disableProperty().bind(Bindings.createBooleanBinding(() -> {
+            for (ObservableBooleanValue condition : conditions.values()) {
+                if (!condition.get()) {
+                    return true;
+                }
+            }
+            return false;
+        }, dependencies));
+    }
+
+    private final Dialog<?> dialog;
+    private final Map<Object, ObservableBooleanValue> conditions = new LinkedHashMap<>();
+
+}
@@ -0,0 +1,267 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+
+/**
+ * ChoicePane over a {@code ChoiceSource}. With no filter text, the list
+ * has the source's size and loads pages in the background as rows become
+ * visible, keeping recently used pages in an LRU cache. With filter text,
+ * the list shows the source's search results. Requests that are no longer
+ * needed are cancelled, and their results ignored. Failed requests are
+ * reported, and retried once the filter text changes or the dialog is
+ * shown again.
+ */
+final class SourceChoicePane extends ChoicePane {
+
+    /**
+     * Creates the pane and starts counting the source's choices.
+     * @param source The source of the choices
+     */
+    SourceChoicePane(ChoiceSource<String> source) {
+        this.source = source;
+        list.setPlaceholder(placeholder);
+        list.setCellFactory(lv -> new ListCell<String>() {
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty) {
+                    setText(null);
+                } else if (item != null) {
+                    setText(item);
+                } else {
+                    setText(failedPages.contains(getIndex() / PAGE_SIZE) ? FAILED : LOADING);
+                }
+            }
+        });
+        filterChanged("");
+    }
+
+    @Override
+    void filterChanged(String text) {
+        cancelAll();
+        int requested = ++generation;
+        placeholder.setText(LOADING);
+        if (text.isEmpty()) {
+            browse(requested);
+        } else {
+            searches.add(load(() -> {
+                List<String> found = source.search(text, SEARCH_LIMIT);
+                publish(() -> {
+                    if (requested == generation) {
+                        show(FXCollections.observableList(found));
+                    }
+                });
+            }, () -> failed(requested)));
+        }
+    }
+
+    @Override
+    void shown() {
+        if (stale) {
+            stale = false;
+            filterChanged(filter.getText());
+        }
+    }
+
+    @Override
+    void hidden() {
+        cancelAll();
+        generation++;
+        stale = true;
+    }
+
+    /**
+     * Hands search results to the JavaFX Application thread. Results
+     * arriving before the previous ones were applied replace them, so
+     * the list is updated at most once per dispatch.
+     */
+    private void publish(Runnable update) {
+        if (pendingResults.getAndSet(update) == null) {
+            FXDispatcher.enqueue(() -> pendingResults.getAndSet(null).run());
+        }
+    }
+
+    private void browse(int requested) {
+        if (count >= 0) {
+            show(new PagedList(count));
+            return;
+        }
+        list.setItems(FXCollections.emptyObservableList());
+        searches.add(load(() -> {
+            int total = source.count();
+            FXDispatcher.enqueue(() -> {
+                count = total;
+                if (requested == generation) {
+                    show(new PagedList(total));
+                }
+            });
+        }, () -> failed(requested)));
+    }
+
+    /**
+     * Empties the list and shows an error in its place, if the
+     * failed count or search is still the current request.
+     */
+    private void failed(int requested) {
+        if (requested == generation) {
+            list.setItems(FXCollections.emptyObservableList());
+            placeholder.setText(FAILED);
+        }
+    }
+
+    private void show(ObservableList<String> items) {
+        list.setItems(items);
+        if (!items.isEmpty()) {
+            list.getSelectionModel().select(0);
+            list.scrollTo(0);
+        }
+    }
+
+    /**
+     * Starts loading a page, unless it is already being loaded.
+     * Cancels the oldest page requests once too many are in flight,
+     * as the user has most likely scrolled past them.
+     */
+    private void requestPage(int page) {
+        if (loading.containsKey(page) || failedPages.contains(page)) {
+            return;
+        }
+        int requested = generation;
+        loading.put(page, load(() -> {
+            List<String> rows = source.page(page * PAGE_SIZE, PAGE_SIZE);
+            FXDispatcher.enqueue(() -> {
+                if (requested == generation) {
+                    loading.remove(page);
+                    pages.put(page, rows);
+                    list.refresh();
+                }
+            });
+        }, () -> {
+            if (requested == generation) {
+                loading.remove(page);
+                failedPages.add(page);
+                list.refresh();
+            }
+        }));
+        Iterator<Future<?>> oldest = loading.values().iterator();
+        while (loading.size() > MAX_PAGE_REQUESTS) {
+            oldest.next().cancel(true);
+            oldest.remove();
+        }
+    }
+
+    private void cancelAll() {
+        for (Future<?> request : loading.values()) {
+            request.cancel(true);
+        }
+        loading.clear();
+        failedPages.clear();
+        for (Future<?> search : searches) {
+            search.cancel(true);
+        }
+        searches.clear();
+    }
+
+    /**
+     * Runs a request on a background thread. Unless the request was
+     * cancelled, a failure is reported, and {@code onFailure} is run
+     * on the JavaFX Application thread.
+     */
+    private static Future<?> load(Runnable request, Runnable onFailure) {
+        return BackgroundExecutor.submit(() -> {
+            try {
+                request.run();
+            } catch (RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                if (!thread.isInterrupted()) {
+                    FXDispatcher.enqueue(onFailure);
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Read-only list of all the source's choices, returning null
+     * for rows whose page has not been loaded yet.
+     */
+    private final class PagedList extends ObservableListBase<String> {
+
+        private PagedList(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            List<String> rows = pages.get(index / PAGE_SIZE);
+            if (rows == null) {
+                requestPage(index / PAGE_SIZE);
+                return null;
+            }
+            int row = index % PAGE_SIZE;
+            return row < rows.size() ? rows.get(row) : null;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        private final int size;
+    }
+
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_CACHED_PAGES = 64;
+    private static final int MAX_PAGE_REQUESTS = 4;
+    private static final int SEARCH_LIMIT = 1000;
+    private static final String LOADING = "Loading...";
+    private static final String FAILED = "Failed to load choices";
+    private final ChoiceSource<String> source;
+    private final Label placeholder = new Label(LOADING);
+    private final Map<Integer, List<String>> pages = new LinkedHashMap<Integer, List<String>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<String>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private final Map<Integer, Future<?>> loading = new LinkedHashMap<>();
+    private final Set<Integer> failedPages = new HashSet<>();
+    private final List<Future<?>> searches = new ArrayList<>();
+    private final AtomicReference<Runnable> pendingResults = new AtomicReference<>();
+    private int count = -1;
+    private int generation;
+    private boolean stale;
+
+}
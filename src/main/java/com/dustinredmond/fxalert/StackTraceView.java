@@ -0,0 +1,303 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.MenuItem;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+
+/**
+ * Virtualized view of a Throwable's stack trace. Rows are only created
+ * once {@code populate()} is called, on a background thread, and are
+ * streamed into the list in chunks while a placeholder is shown.
+ * Consecutive repeated frames and framework frames are collapsed, and
+ * each Throwable in the cause chain shows at most {@code PAGE_SIZE}
+ * frames until "show more" is clicked.
+ */
+final class StackTraceView extends ListView<StackTraceView.Row> {
+
+    StackTraceView(Throwable throwable) {
+        this.throwable = throwable;
+        setCellFactory(lv -> new RowCell());
+        setPlaceholder(new Label("Formatting stack trace..."));
+        MenuItem copy = new MenuItem("Copy stack trace");
+        copy.setOnAction(e -> BackgroundExecutor.execute(() -> {
+            String trace = fullTrace(throwable);
+            FXDispatcher.enqueue(() -> {
+                ClipboardContent content = new ClipboardContent();
+                content.putString(trace);
+                Clipboard.getSystemClipboard().setContent(content);
+            });
+        }));
+        setContextMenu(new ContextMenu(copy));
+    }
+
+    /**
+     * Starts building the rows for the stack trace on a background
+     * thread, unless already done or in progress.
+     */
+    void populate() {
+        if (formatter != null) {
+            return;
+        }
+        formatter = new Formatter();
+        BackgroundExecutor.execute(formatter);
+    }
+
+    /**
+     * Stops building rows, if still in progress. The rows
+     * are rebuilt by the next call to {@code populate()}.
+     */
+    void cancel() {
+        if (formatter != null && !formatter.done) {
+            formatter.cancelled = true;
+            formatter = null;
+            getItems().clear();
+        }
+    }
+
+    private static void addThrowable(Consumer<Row> rows, Throwable t, StackTraceElement[] enclosing,
+                                     String caption, String indent, Set<Throwable> seen) {
+        if (!seen.add(t)) {
+            rows.accept(Row.text(indent + caption + "[CIRCULAR REFERENCE: " + t + "]"));
+            return;
+        }
+        rows.accept(Row.text(indent + caption + t));
+        StackTraceElement[] trace = t.getStackTrace();
+        int m = trace.length - 1;
+        int n = enclosing.length - 1;
+        while (m >= 0 && n >= 0 && trace[m].equals(enclosing[n])) {
+            m--;
+            n--;
+        }
+        int inCommon = trace.length - 1 - m;
+        addFrames(rows, trace, 0, m + 1, indent);
+        if (inCommon != 0) {
+            rows.accept(Row.text(indent + "\t... " + inCommon + " more"));
+        }
+        for (Throwable suppressed : t.getSuppressed()) {
+            addThrowable(rows, suppressed, trace, "Suppressed: ", indent + "\t", seen);
+        }
+        Throwable cause = t.getCause();
+        if (cause != null) {
+            addThrowable(rows, cause, trace, "Caused by: ", indent, seen);
+        }
+    }
+
+    /**
+     * Adds rows for frames {@code from} (inclusive) to {@code to} (exclusive),
+     * at most {@code PAGE_SIZE} of them, followed by a "show more" row.
+     */
+    private static void addFrames(Consumer<Row> rows, StackTraceElement[] trace, int from, int to, String indent) {
+        int shown = 0;
+        int i = from;
+        while (i < to && shown < PAGE_SIZE) {
+            int run = 1;
+            while (i + run < to && trace[i + run].equals(trace[i])) {
+                run++;
+            }
+            if (run > 1) {
+                rows.accept(Row.frame(trace[i], indent));
+                rows.accept(Row.text(indent + "\t... previous frame repeated " + (run - 1) + " more times"));
+                i += run;
+                shown++;
+                continue;
+            }
+            int framework = 0;
+            while (i + framework < to && isFrameworkFrame(trace[i + framework])) {
+                framework++;
+            }
+            if (framework > 1) {
+                int start = i;
+                int end = i + framework;
+                rows.accept(Row.expandable(indent + "\t... " + framework + " framework frames (click to expand)",
+                    () -> {
+                        List<Row> expanded = new ArrayList<>();
+                        for (int f = start; f < end; f++) {
+                            expanded.add(Row.frame(trace[f], indent));
+                        }
+                        return expanded;
+                    }));
+                i += framework;
+            } else {
+                rows.accept(Row.frame(trace[i], indent));
+                i++;
+            }
+            shown++;
+        }
+        if (i < to) {
+            int next = i;
+            rows.accept(Row.expandable(indent + "\t... show " + (to - next) + " more frames",
+                () -> {
+                    List<Row> more = new ArrayList<>();
+                    addFrames(more::add, trace, next, to, indent);
+                    return more;
+                }));
+        }
+    }
+
+    private static boolean isFrameworkFrame(StackTraceElement frame) {
+        String className = frame.getClassName();
+        for (String prefix : FXAlert.getFrameworkPackages()) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String fullTrace(Throwable throwable) {
+        StringWriter sw = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(sw));
+        return sw.toString();
+    }
+
+    /**
+     * Replaces an expandable row with the rows it stands for.
+     */
+    private void expand(int index) {
+        Row row = getItems().get(index);
+        if (row.expansion != null) {
+            getItems().remove(index);
+            getItems().addAll(index, row.expansion.get());
+        }
+    }
+
+    /**
+     * Builds the rows on a background thread, formatting each one, and
+     * hands them to the list in chunks until done or cancelled.
+     */
+    private final class Formatter implements Runnable, Consumer<Row> {
+
+        @Override
+        public void run() {
+            try {
+                Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+                addThrowable(this, throwable, new StackTraceElement[0], "", "", seen);
+                flush(true);
+            } catch (CancellationException e) {
+                // the alert was closed before the trace was formatted
+            }
+        }
+
+        @Override
+        public void accept(Row row) {
+            if (cancelled) {
+                throw new CancellationException();
+            }
+            row.getText();
+            chunk.add(row);
+            if (chunk.size() >= CHUNK_SIZE) {
+                flush(false);
+            }
+        }
+
+        private void flush(boolean last) {
+            List<Row> rows = chunk;
+            chunk = new ArrayList<>(CHUNK_SIZE);
+            FXDispatcher.enqueue(() -> {
+                if (!cancelled) {
+                    getItems().addAll(rows);
+                    done = last;
+                }
+            });
+        }
+
+        private List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        private volatile boolean cancelled;
+        private boolean done;
+    }
+
+    /**
+     * A line of the stack trace. Frame rows are formatted on first use.
+     */
+    static final class Row {
+
+        private Row(String text, StackTraceElement frame, String indent,
+                    Supplier<List<Row>> expansion) {
+            this.text = text;
+            this.frame = frame;
+            this.indent = indent;
+            this.expansion = expansion;
+        }
+
+        static Row text(String text) {
+            return new Row(text, null, null, null);
+        }
+
+        static Row frame(StackTraceElement frame, String indent) {
+            return new Row(null, frame, indent, null);
+        }
+
+        static Row expandable(String text, Supplier<List<Row>> expansion) {
+            return new Row(text, null, null, expansion);
+        }
+
+        String getText() {
+            if (text == null) {
+                text = indent + "\tat " + frame;
+            }
+            return text;
+        }
+
+        private String text;
+        private final StackTraceElement frame;
+        private final String indent;
+        private final Supplier<List<Row>> expansion;
+    }
+
+    private final class RowCell extends ListCell<Row> {
+
+        private RowCell() {
+            setOnMouseClicked(e -> {
+                if (!isEmpty() && getItem().expansion != null) {
+                    expand(getIndex());
+                }
+            });
+        }
+
+        @Override
+        protected void updateItem(Row row, boolean empty) {
+            super.updateItem(row, empty);
+            setText(empty || row == null ? null : row.getText());
+            setUnderline(!empty && row != null && row.expansion != null);
+        }
+    }
+
+    /**
+     * Maximum frames shown per Throwable before a "show more" row.
+     */
+    private static final int PAGE_SIZE = 50;
+    private static final int CHUNK_SIZE = 64;
+    private final Throwable throwable;
+    private Formatter formatter;
+
+}
@@ -0,0 +1,143 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of named themes shared by all dialogs and flash notifications.
+ * Each theme's CSS is written once to a stylesheet file, which dialogs
+ * then reference by URL. JavaFX parses a stylesheet once per URL, so a
+ * theme costs nothing per dialog, unlike an inline {@code withStyle(String)}
+ * which is parsed again for every dialog. Accessed via
+ * {@code FXAlert.getThemes()}. Safe to use from any thread.
+ * <p>
+ * In theme CSS, dialogs are matched by {@code .dialog-pane}
+ * and flash notifications by {@code .fxalert-flash}.
+ */
+public class ThemeRegistry {
+
+    ThemeRegistry() {
+        super();
+    }
+
+    /**
+     * Registers a theme from a stylesheet's text, replacing
+     * any theme registered under the same name.
+     * @param name The theme's name
+     * @param css The stylesheet's text
+     * @return URL of the theme's stylesheet
+     */
+    public String register(String name, String css) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("name must not be null or empty");
+        }
+        if (css == null) {
+            throw new IllegalArgumentException("css must not be null");
+        }
+        String url = stylesheets.computeIfAbsent(css, ThemeRegistry::write);
+        themes.put(name, url);
+        return url;
+    }
+
+    /**
+     * Registers a theme from JavaFX CSS declarations, as would be passed to
+     * {@code withStyle(String)}, e.g. "-fx-font-size: 14px;". The declarations
+     * apply to the root pane of every dialog and flash notification.
+     * @param name The theme's name
+     * @param style JavaFX CSS declarations
+     * @return URL of the theme's stylesheet
+     */
+    public String registerStyle(String name, String style) {
+        if (style == null) {
+            throw new IllegalArgumentException("style must not be null");
+        }
+        return register(name, ".dialog-pane, .fxalert-flash {\n" + style + "\n}\n");
+    }
+
+    /**
+     * Returns the URL of a registered theme's stylesheet.
+     * @param name The theme's name
+     * @return URL of the theme's stylesheet
+     */
+    public String getStylesheet(String name) {
+        String url = name == null ? null : themes.get(name);
+        if (url == null) {
+            throw new IllegalArgumentException("No theme registered as " + name);
+        }
+        return url;
+    }
+
+    /**
+     * Returns whether a theme is registered under the given name.
+     * @param name The theme's name
+     * @return true if the theme is registered
+     */
+    public boolean isRegistered(String name) {
+        return name != null && themes.containsKey(name);
+    }
+
+    /**
+     * Sets the theme applied to every dialog and flash
+     * notification built from now on.
+     * @param name A registered theme's name, null for none
+     */
+    public void setDefault(String name) {
+        this.defaultStylesheet = name == null ? null : getStylesheet(name);
+        this.defaultName = name;
+    }
+
+    /**
+     * Returns the name of the theme applied to every
+     * dialog and flash notification, if any.
+     * @return The default theme's name, or null
+     */
+    public String getDefault() {
+        return defaultName;
+    }
+
+    /**
+     * Returns the URL of the default theme's stylesheet.
+     * @return The stylesheet's URL, or null if there is no default theme
+     */
+    String getDefaultStylesheet() {
+        return defaultStylesheet;
+    }
+
+    private static String write(String css) {
+        try {
+            Path file = Files.createTempFile("fxalert-theme-", ".css");
+            file.toFile().deleteOnExit();
+            Files.write(file, css.getBytes(StandardCharsets.UTF_8));
+            return file.toUri().toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write theme stylesheet", e);
+        }
+    }
+
+    private final Map<String, String> themes = new ConcurrentHashMap<>();
+    private final Map<String, String> stylesheets = new ConcurrentHashMap<>();
+    private volatile String defaultName;
+    private volatile String defaultStylesheet;
+
+}
@@ -0,0 +1,116 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javafx.scene.control.Alert.AlertType;
+
+/**
+ * {@code AlertRateLimiter} keeping one token bucket per
+ * combination of {@code AlertType} and call-site key.
+ * Each bucket holds up to {@code burst} permits and
+ * refills at {@code permitsPerSecond}.
+ */
+public class TokenBucketRateLimiter implements AlertRateLimiter {
+
+    /**
+     * Creates a token bucket rate limiter.
+     * @param burst Number of Alerts that may be shown back-to-back
+     * @param permitsPerSecond Sustained number of Alerts per second
+     */
+    public TokenBucketRateLimiter(int burst, double permitsPerSecond) {
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be at least 1");
+        }
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.burst = burst;
+        this.nanosPerPermit = 1_000_000_000L / permitsPerSecond;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean tryAcquire(AlertType type, String key) {
+        return bucket(type, key).tryAcquire(System.nanoTime());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long nanosUntilAvailable(AlertType type, String key) {
+        return bucket(type, key).nanosUntilAvailable(System.nanoTime());
+    }
+
+    private Bucket bucket(AlertType type, String key) {
+        String bucketKey = type + "|" + key;
+        Bucket bucket = buckets.get(bucketKey);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= MAX_BUCKETS) {
+            long now = System.nanoTime();
+            buckets.values().removeIf(b -> b.isFull(now));
+        }
+        return buckets.computeIfAbsent(bucketKey, k -> new Bucket(burst, System.nanoTime()));
+    }
+
+    private final class Bucket {
+
+        private Bucket(int permits, long now) {
+            this.permits = permits;
+            this.refilledAt = now;
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            refill(now);
+            if (permits >= 1) {
+                permits--;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized long nanosUntilAvailable(long now) {
+            refill(now);
+            return permits >= 1 ? 0 : (long) ((1 - permits) * nanosPerPermit);
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return permits >= burst;
+        }
+
+        private void refill(long now) {
+            permits = Math.min(burst, permits + (now - refilledAt) / nanosPerPermit);
+            refilledAt = now;
+        }
+
+        private double permits;
+        private long refilledAt;
+    }
+
+    private static final int MAX_BUCKETS = 1024;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final int burst;
+    private final double nanosPerPermit;
+
+}
@@ -5,6 +5,7 @@ module com.dustinredmond.fxalert{
     requires javafx.base;
     requires javafx.graphics;
     requires javafx.controls;
+    requires java.management;
 
     exports com.dustinredmond.fxalert;
 }
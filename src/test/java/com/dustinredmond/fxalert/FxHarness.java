@@ -0,0 +1,170 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javafx.application.Platform;
+import javafx.event.EventHandler;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.DialogEvent;
+import javafx.scene.text.Text;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+
+/**
+ * Boots the JavaFX toolkit once per JVM, headless via Monocle unless
+ * another Glass platform (e.g. gtk under Xvfb) is chosen with
+ * {@code -Dglass.platform}, and drives dialogs from tests and benchmarks.
+ */
+final class FxHarness {
+
+    private FxHarness() {
+        super();
+    }
+
+    /**
+     * Starts the toolkit, unless already started.
+     */
+    static synchronized void start() throws InterruptedException {
+        if (started) {
+            return;
+        }
+        if (System.getProperty("glass.platform") == null) {
+            System.setProperty("glass.platform", "Monocle");
+            System.setProperty("monocle.platform", "Headless");
+            System.setProperty("prism.order", "sw");
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        Platform.startup(latch::countDown);
+        latch.await();
+        Platform.setImplicitExit(false);
+        started = true;
+    }
+
+    /**
+     * Runs the task on the JavaFX Application thread and waits for it.
+     * @param task The task
+     * @param <T> The task's result type
+     * @return The task's result
+     */
+    static <T> T onFx(Callable<T> task) throws InterruptedException, ExecutionException {
+        FutureTask<T> future = new FutureTask<>(task);
+        Platform.runLater(future);
+        try {
+            return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ExecutionException("Timed out waiting for the JavaFX Application thread", e);
+        }
+    }
+
+    /**
+     * Returns whether the toolkit can lay out text. Showing a dialog
+     * needs the platform's native font libraries, which minimal
+     * containers may lack.
+     * @return true if text can be laid out
+     */
+    static synchronized boolean canRenderText() throws InterruptedException {
+        if (canRenderText == null) {
+            try {
+                onFx(() -> new Text("FXAlert").getLayoutBounds());
+                canRenderText = true;
+            } catch (ExecutionException e) {
+                canRenderText = false;
+            }
+        }
+        return canRenderText;
+    }
+
+    /**
+     * Skips the calling test if dialogs cannot be shown for lack of
+     * native font libraries, as that is a gap in the environment rather
+     * than a failure. With {@code -Dfxalert.requireUi=true}, e.g. on CI,
+     * the test fails instead, so that performance budgets cannot be
+     * passed silently.
+     */
+    static void requireTextRendering() throws InterruptedException {
+        boolean canRender = canRenderText();
+        String reason = "Dialogs cannot be shown: the platform's native font libraries are missing";
+        if (!canRender && Boolean.getBoolean("fxalert.requireUi")) {
+            Assertions.fail(reason);
+        }
+        Assumptions.assumeTrue(canRender, reason);
+    }
+
+    /**
+     * Returns an {@code onShown} handler that presses the dialog's
+     * button of the given type, as a user would, once it has been shown.
+     * @param buttonType The button to press
+     * @return The handler
+     */
+    static EventHandler<DialogEvent> pressing(ButtonType buttonType) {
+        return e -> {
+            Dialog<?> dialog = (Dialog<?>) e.getSource();
+            Platform.runLater(() -> press(dialog, buttonType));
+        };
+    }
+
+    /**
+     * Presses the dialog's button of the given type.
+     * @param dialog A showing dialog
+     * @param buttonType The button to press
+     */
+    static void press(Dialog<?> dialog, ButtonType buttonType) {
+        Node button = dialog.getDialogPane().lookupButton(buttonType);
+        if (!(button instanceof Button)) {
+            throw new IllegalArgumentException("Dialog has no button " + buttonType);
+        }
+        ((Button) button).fire();
+    }
+
+    /**
+     * Returns a time budget, scaled by {@code -Dfxalert.budget.scale}
+     * so that slow machines can relax every budget at once.
+     * @param nanos The budget on a typical machine
+     * @return The budget to assert against
+     */
+    static long budget(long nanos) {
+        return (long) (nanos * budgetScale());
+    }
+
+    /**
+     * Returns the factor by which time budgets are multiplied,
+     * and rate budgets divided, from {@code -Dfxalert.budget.scale}.
+     * @return The budget scale, 1 by default
+     */
+    static double budgetScale() {
+        double scale = Double.parseDouble(System.getProperty("fxalert.budget.scale", "1"));
+        if (!(scale > 0)) {
+            throw new IllegalArgumentException("fxalert.budget.scale must be positive");
+        }
+        return scale;
+    }
+
+    private static final long TIMEOUT_SECONDS = 30;
+    private static boolean started;
+    private static Boolean canRenderText;
+
+}
@@ -0,0 +1,138 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.ButtonType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Builds Alerts without showing them, on and off the
+ * JavaFX Application thread, within time budgets.
+ */
+class TestAlertBuilder {
+
+    @BeforeAll
+    static void boot() throws Exception {
+        FxHarness.start();
+    }
+
+    @Test
+    void withTextSetsTexts() throws Exception {
+        Alert alert = FxHarness.onFx(() -> FXAlert.warning()
+            .withText("Title", "Header", "Content")
+            .getAlert());
+        assertEquals("Title", alert.getTitle());
+        assertEquals("Header", alert.getHeaderText());
+        assertEquals("Content", alert.getContentText());
+        assertEquals(AlertType.WARNING, alert.getAlertType());
+    }
+
+    @Test
+    void specCreatesGraphicForEachAlert() throws Exception {
+        DialogSpec<Alert, ButtonType> spec = AlertBuilder.lazy(AlertType.INFORMATION)
+            .withGraphic(getClass().getResource("java.png").toExternalForm(), 32, 32)
+            .toSpec();
+        Alert first = FxHarness.onFx(spec::build);
+        Alert second = FxHarness.onFx(spec::build);
+        assertNotNull(first.getDialogPane().getGraphic());
+        assertNotNull(second.getDialogPane().getGraphic());
+        assertNotSame(first.getDialogPane().getGraphic(), second.getDialogPane().getGraphic());
+    }
+
+    @Test
+    void lazyBuilderIsConfiguredOffThread() throws Exception {
+        DialogSpec<Alert, ButtonType> spec = CompletableFuture.supplyAsync(() ->
+            AlertBuilder.lazy(AlertType.ERROR)
+                .withText("Built elsewhere", "Configured off the JavaFX thread")
+                .withButtonTypes(ButtonType.CLOSE)
+                .toSpec()).get();
+        Alert first = FxHarness.onFx(spec::build);
+        Alert second = FxHarness.onFx(spec::build);
+        assertNotSame(first, second);
+        assertEquals("Built elsewhere", second.getHeaderText());
+        assertEquals(1, second.getButtonTypes().size());
+        assertEquals(ButtonType.CLOSE, second.getButtonTypes().get(0));
+    }
+
+    @Test
+    void buildWithinBudget() throws Exception {
+        build(50);
+        long start = System.nanoTime();
+        build(RUNS);
+        long perAlert = (System.nanoTime() - start) / RUNS;
+        long budget = FxHarness.budget(TimeUnit.MILLISECONDS.toNanos(5));
+        assertTrue(perAlert <= budget, () -> String.format(
+            "Building an Alert took %.2fms, budget is %.2fms", perAlert / 1e6, budget / 1e6));
+    }
+
+    @Test
+    void exceptionAlertBuildDoesNotGrowWithDepth() throws Exception {
+        Throwable shallow = deep(10, new RuntimeException("Shallow"));
+        Throwable deep = deep(5000, new RuntimeException("Deep"));
+        buildException(shallow, 20);
+        buildException(deep, 20);
+        long shallowNanos = buildException(shallow, RUNS);
+        long deepNanos = buildException(deep, RUNS);
+        assertTrue(deepNanos <= shallowNanos * 3 + FxHarness.budget(TimeUnit.MILLISECONDS.toNanos(1)),
+            () -> String.format("Deep trace took %.2fms per Alert, shallow %.2fms",
+                deepNanos / 1e6, shallowNanos / 1e6));
+    }
+
+    private static void build(int count) throws Exception {
+        FxHarness.onFx(() -> {
+            for (int i = 0; i < count; i++) {
+                FXAlert.info().withText("Title", "Header", "Content " + i).getAlert();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Returns the average time taken to build an exception Alert.
+     */
+    private static long buildException(Throwable t, int count) throws Exception {
+        long start = System.nanoTime();
+        FxHarness.onFx(() -> {
+            for (int i = 0; i < count; i++) {
+                FXAlert.exception(t).getAlert();
+            }
+            return null;
+        });
+        return (System.nanoTime() - start) / count;
+    }
+
+    private static Throwable deep(int depth, Throwable t) {
+        if (depth == 0) {
+            t.fillInStackTrace();
+            return t;
+        }
+        return deep(depth - 1, t);
+    }
+
+    private static final int RUNS = 200;
+
+}
@@ -0,0 +1,148 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.ButtonType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Shows Alerts headless and answers them with simulated button presses.
+ */
+class TestAlertInteraction {
+
+    @BeforeAll
+    static void boot() throws Exception {
+        FxHarness.start();
+    }
+
+    @BeforeEach
+    void requireText() throws Exception {
+        FxHarness.requireTextRendering();
+    }
+
+    @Test
+    void showAndWaitReturnsPressedButton() throws Exception {
+        Optional<ButtonType> result = FxHarness.onFx(() -> FXAlert.confirm()
+            .withText("Proceed?")
+            .onShown(FxHarness.pressing(ButtonType.CANCEL))
+            .showAndWait());
+        assertEquals(Optional.of(ButtonType.CANCEL), result);
+    }
+
+    @Test
+    void customButtonsArePressable() throws Exception {
+        ButtonType yes = new ButtonType("Yes");
+        ButtonType no = new ButtonType("No");
+        Optional<ButtonType> result = FxHarness.onFx(() -> FXAlert.confirm()
+            .withButtonTypes(yes, no)
+            .withText("Yes or no?")
+            .onShown(FxHarness.pressing(no))
+            .showAndWait());
+        assertEquals(Optional.of(no), result);
+    }
+
+    @Test
+    void exceptionAlertShowsDeepTrace() throws Exception {
+        Throwable deep = deep(2000, new IllegalStateException("Deep failure"));
+        Optional<ButtonType> result = FxHarness.onFx(() -> FXAlert.exception(deep)
+            .onShown(FxHarness.pressing(ButtonType.OK))
+            .showAndWait());
+        assertEquals(Optional.of(ButtonType.OK), result);
+    }
+
+    @Test
+    void onlyShortcutsFoldRepeatedExceptions() throws Exception {
+        Throwable repeated = new IllegalStateException("Repeated failure");
+        Alert open = FxHarness.onFx(() -> {
+            AlertBuilder first = FXAlert.exception(repeated);
+            first.show();
+            return first.getAlert();
+        });
+        try {
+            assertEquals(Optional.empty(), FxHarness.onFx(() -> FXAlert.exception(repeated).showAndWait()));
+            Optional<ButtonType> result = FxHarness.onFx(() -> new AlertBuilder(repeated, "", "", "Explicit")
+                .onShown(FxHarness.pressing(ButtonType.OK))
+                .showAndWait());
+            assertEquals(Optional.of(ButtonType.OK), result);
+        } finally {
+            FxHarness.onFx(() -> {
+                FxHarness.press(open, ButtonType.OK);
+                return null;
+            });
+        }
+    }
+
+    @Test
+    void specCanBeShownRepeatedly() throws Exception {
+        DialogSpec<Alert, ButtonType> spec = AlertBuilder.lazy(AlertType.WARNING)
+            .withText("Shown twice")
+            .onShown(FxHarness.pressing(ButtonType.OK))
+            .toSpec();
+        for (int i = 0; i < 2; i++) {
+            assertEquals(Optional.of(ButtonType.OK), FxHarness.onFx(spec::showAndWait));
+        }
+    }
+
+    @Test
+    void timeToShownWithinBudget() throws Exception {
+        long[] latencies = new long[RUNS];
+        for (int i = 0; i < RUNS + WARMUP; i++) {
+            long[] shownAt = new long[1];
+            long start = FxHarness.onFx(() -> {
+                long now = System.nanoTime();
+                FXAlert.info()
+                    .withText("Shown", "Measuring time to shown")
+                    .onShown(e -> {
+                        shownAt[0] = System.nanoTime();
+                        FxHarness.pressing(ButtonType.OK).handle(e);
+                    })
+                    .showAndWait();
+                return now;
+            });
+            if (i >= WARMUP) {
+                latencies[i - WARMUP] = shownAt[0] - start;
+            }
+        }
+        Arrays.sort(latencies);
+        long median = latencies[RUNS / 2];
+        long budget = FxHarness.budget(TimeUnit.MILLISECONDS.toNanos(250));
+        assertTrue(median <= budget, () -> String.format(
+            "Median time to shown %.1fms exceeds budget of %.1fms", median / 1e6, budget / 1e6));
+    }
+
+    private static Throwable deep(int depth, Throwable t) {
+        if (depth == 0) {
+            t.fillInStackTrace();
+            return t;
+        }
+        return deep(depth - 1, t);
+    }
+
+    private static final int WARMUP = 5;
+    private static final int RUNS = 15;
+
+}
@@ -0,0 +1,119 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.ButtonType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that Alerts of the {@code FXAlert.info()} family are
+ * handed back to the pool once hidden, and escaped ones are not.
+ */
+class TestAlertPool {
+
+    @BeforeAll
+    static void boot() throws Exception {
+        FxHarness.start();
+    }
+
+    @BeforeEach
+    void emptyPool() throws Exception {
+        FxHarness.onFx(() -> {
+            FXAlert.getAlertPool().clear();
+            return null;
+        });
+    }
+
+    @Test
+    void newAlertIsCountedAsMiss() throws Exception {
+        AlertPool pool = FXAlert.getAlertPool();
+        long misses = pool.getMissCount();
+        FxHarness.onFx(() -> FXAlert.warning().withText("Borrowed").getAlert());
+        assertEquals(misses + 1, pool.getMissCount());
+    }
+
+    @Test
+    void borrowedAlertStaysRecyclableUntilBuilt() throws Exception {
+        FxHarness.onFx(() -> {
+            LazyDialog<Alert, ButtonType> lazy = new LazyDialog<>(true,
+                init -> FXAlert.getAlertPool().borrow(AlertType.INFORMATION, init));
+            Alert alert = lazy.get();
+            assertTrue(AlertPool.isRecyclable(alert));
+            assertFalse(AlertPool.isRecyclable(FXAlert.info().build()));
+            return null;
+        });
+    }
+
+    @Test
+    void hiddenAlertIsReused() throws Exception {
+        FxHarness.requireTextRendering();
+        AlertPool pool = FXAlert.getAlertPool();
+        long hits = pool.getHitCount();
+        double[] shownAt = new double[2];
+        assertEquals(Optional.of(ButtonType.OK), FxHarness.onFx(() -> FXAlert.info()
+            .withText("First")
+            .at(POSITION, POSITION)
+            .onShown(FxHarness.pressing(ButtonType.OK))
+            .showAndWait()));
+        assertEquals(1, idleCount());
+        assertEquals(Optional.of(ButtonType.OK), FxHarness.onFx(() -> FXAlert.info()
+            .withText("Second")
+            .onShown(e -> {
+                Alert alert = (Alert) e.getSource();
+                shownAt[0] = alert.getX();
+                shownAt[1] = alert.getY();
+                FxHarness.pressing(ButtonType.OK).handle(e);
+            })
+            .showAndWait()));
+        assertEquals(hits + 1, pool.getHitCount());
+        assertFalse(shownAt[0] == POSITION && shownAt[1] == POSITION,
+            "Reused Alert should not keep the previous Alert's position");
+    }
+
+    @Test
+    void builtAlertIsNotRecycled() throws Exception {
+        FxHarness.requireTextRendering();
+        Optional<ButtonType> result = FxHarness.onFx(() -> {
+            Alert alert = FXAlert.info().withText("Escaped").build();
+            alert.setOnShown(FxHarness.pressing(ButtonType.OK));
+            return alert.showAndWait();
+        });
+        assertEquals(Optional.of(ButtonType.OK), result);
+        assertEquals(0, idleCount());
+    }
+
+    /**
+     * Returns the pool's idle count once Alerts hidden so far,
+     * which are recycled in a later pulse, have been handed back.
+     */
+    private static int idleCount() throws Exception {
+        FxHarness.onFx(() -> null);
+        return FxHarness.onFx(() -> FXAlert.getAlertPool().getIdleCount());
+    }
+
+    private static final double POSITION = 17;
+
+}
@@ -0,0 +1,58 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the stages returned for dialogs shown without blocking.
+ */
+class TestAsyncDialogs {
+
+    @BeforeAll
+    static void boot() throws Exception {
+        FxHarness.start();
+    }
+
+    @Test
+    void callersCannotCompleteStage() throws Exception {
+        CompletionStage<Optional<ButtonType>> stage = AsyncDialogs.show(() -> (Dialog<ButtonType>) null, null);
+        stage.toCompletableFuture().complete(Optional.of(ButtonType.OK));
+        assertEquals(Optional.empty(), stage.toCompletableFuture().get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void stageIsCompletedByExecutor() throws Exception {
+        Thread[] completedOn = new Thread[1];
+        CompletionStage<Optional<ButtonType>> stage = AsyncDialogs.show(() -> (Dialog<ButtonType>) null,
+            task -> new Thread(() -> {
+                completedOn[0] = Thread.currentThread();
+                task.run();
+            }, "completer").start());
+        stage.toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertEquals("completer", completedOn[0].getName());
+    }
+
+}
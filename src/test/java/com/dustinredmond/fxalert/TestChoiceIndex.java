@@ -0,0 +1,121 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the index behind {@code withLargeChoices} against a
+ * brute-force search, and its query time budget.
+ */
+class TestChoiceIndex {
+
+    @BeforeAll
+    static void buildIndex() {
+        Random random = new Random(42);
+        items = new String[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            items[i] = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+        }
+        index = new ChoiceIndex(items);
+    }
+
+    @Test
+    void emptyQueryMatchesEverything() {
+        assertNull(index.filter(""));
+    }
+
+    @Test
+    void shortQueriesMatchPrefixesIgnoringCase() {
+        for (String query : new String[] {"a", "Go", "t", "xy"}) {
+            assertArrayEquals(bruteForce(query, true), index.filter(query), query);
+        }
+    }
+
+    @Test
+    void longQueriesMatchSubstringsIgnoringCase() {
+        for (String query : new String[] {"ngo g", "VICTOR", "123", "xyz", "o s", "lf "}) {
+            assertArrayEquals(bruteForce(query, false), index.filter(query), query);
+        }
+    }
+
+    @Test
+    void shortItemsAreIndexed() {
+        ChoiceIndex small = new ChoiceIndex(new String[] {"a", "ab", "abc", "b"});
+        assertArrayEquals(new int[] {0, 1, 2}, small.filter("a"));
+        assertArrayEquals(new int[] {1, 2}, small.filter("AB"));
+        assertArrayEquals(new int[] {2}, small.filter("abc"));
+        assertArrayEquals(new int[] {3}, small.filter("b"));
+    }
+
+    @Test
+    void queriesIgnoreDefaultLocale() {
+        Locale locale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            assertArrayEquals(bruteForce("VICTOR", false), index.filter("VICTOR"));
+            assertArrayEquals(bruteForce("INDIA", false), index.filter("INDIA"));
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    @Test
+    void filterWithinBudget() {
+        String[] queries = {"e", "ta", "ngo", "olf sie", "1234"};
+        for (String query : queries) {
+            index.filter(query);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            index.filter(queries[i % queries.length]);
+        }
+        long perQuery = (System.nanoTime() - start) / RUNS;
+        long budget = FxHarness.budget(TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(perQuery <= budget, () -> String.format(
+            "Filtering %d choices took %.2fms, budget is %.2fms", ITEMS, perQuery / 1e6, budget / 1e6));
+    }
+
+    private static int[] bruteForce(String query, boolean prefix) {
+        String lower = query.toLowerCase(Locale.ROOT);
+        return IntStream.range(0, items.length)
+            .filter(i -> prefix
+                ? items[i].toLowerCase(Locale.ROOT).startsWith(lower)
+                : items[i].toLowerCase(Locale.ROOT).contains(lower))
+            .toArray();
+    }
+
+    private static final int ITEMS = 100_000;
+    private static final int RUNS = 100;
+    private static final String[] WORDS = {
+        "alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel",
+        "india", "juliett", "kilo", "lima", "mike", "november", "oscar", "papa",
+        "quebec", "romeo", "sierra", "tango", "uniform", "victor", "whiskey", "yankee"
+    };
+    private static String[] items;
+    private static ChoiceIndex index;
+
+}
@@ -0,0 +1,156 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import javafx.scene.control.Alert.AlertType;
+import javafx.scene.control.ButtonType;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that dialog lifecycle events reach metrics listeners,
+ * the built-in DialogMetrics, and its MBean.
+ */
+class TestDialogMetrics {
+
+    @BeforeAll
+    static void boot() throws Exception {
+        FxHarness.start();
+    }
+
+    @BeforeEach
+    void register() {
+        FXAlert.addMetricsListener(listener);
+    }
+
+    @AfterEach
+    void unregister() {
+        FXAlert.removeMetricsListener(listener);
+    }
+
+    @Test
+    void constructionIsReported() throws Exception {
+        FxHarness.onFx(() -> AlertBuilder.lazy(AlertType.WARNING).withText("Built").toSpec().build());
+        assertTrue(listener.events.contains("constructed WARNING"), listener.events::toString);
+        assertTrue(FXAlert.getDialogMetrics().getConstructionMeanMillis() > 0);
+    }
+
+    @Test
+    void removedListenerIsNotNotified() throws Exception {
+        FXAlert.removeMetricsListener(listener);
+        FxHarness.onFx(() -> FXAlert.error().withText("Unobserved").getAlert());
+        assertTrue(listener.events.isEmpty(), listener.events::toString);
+    }
+
+    @Test
+    void builtInMetricsAreReadOnly() throws Exception {
+        DialogMetrics metrics = FXAlert.getDialogMetrics();
+        assertFalse(metrics instanceof DialogMetricsListener);
+        FXAlert.removeMetricsListener(listener);
+        metrics.reset();
+        FxHarness.onFx(() -> FXAlert.info().withText("Recorded").getAlert());
+        assertTrue(metrics.getConstructionMeanMillis() > 0);
+    }
+
+    @Test
+    void shownAnsweredAndHiddenAreReported() throws Exception {
+        FxHarness.requireTextRendering();
+        long before = FXAlert.getDialogMetrics().getShownCounts().getOrDefault("CONFIRMATION", 0L);
+        Optional<ButtonType> result = FxHarness.onFx(() -> FXAlert.confirm()
+            .withText("Measured")
+            .onShown(FxHarness.pressing(ButtonType.OK))
+            .showAndWait());
+        assertEquals(Optional.of(ButtonType.OK), result);
+        assertTrue(listener.events.containsAll(List.of(
+            "shown CONFIRMATION", "answered CONFIRMATION", "hidden CONFIRMATION")), listener.events::toString);
+        assertEquals(before + 1, FXAlert.getDialogMetrics().getShownCounts().get("CONFIRMATION"));
+    }
+
+    @Test
+    void histogramEstimatesPercentiles() {
+        Log2Histogram histogram = new Log2Histogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1_000_000L);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(50.5, histogram.getMeanMillis(), 1e-9);
+        assertEquals(100, histogram.getMaxMillis(), 1e-9);
+        double p50 = histogram.getPercentileMillis(50);
+        assertTrue(p50 >= 50 && p50 <= 100, () -> "p50 " + p50);
+        assertEquals(100, histogram.getPercentileMillis(99), 1e-9);
+        histogram.reset();
+        assertEquals(0, histogram.getPercentileMillis(99), 1e-9);
+    }
+
+    @Test
+    void mbeanPublishesAggregates() throws Exception {
+        FxHarness.onFx(() -> FXAlert.info().withText("Counted").getAlert());
+        DialogMetrics metrics = FXAlert.getDialogMetrics();
+        metrics.registerMBean();
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(DialogMetrics.OBJECT_NAME);
+            assertTrue(server.isRegistered(name));
+            double mean = (Double) server.getAttribute(name, "ConstructionMeanMillis");
+            assertTrue(mean > 0);
+            assertEquals(metrics.getFlashQueueDepth(), server.getAttribute(name, "FlashQueueDepth"));
+        } finally {
+            metrics.unregisterMBean();
+        }
+    }
+
+    private final RecordingListener listener = new RecordingListener();
+
+    private static final class RecordingListener implements DialogMetricsListener {
+
+        @Override
+        public void dialogConstructed(String kind, long nanos) {
+            events.add("constructed " + kind);
+        }
+
+        @Override
+        public void dialogShown(String kind, long nanos) {
+            events.add("shown " + kind);
+        }
+
+        @Override
+        public void dialogAnswered(String kind, long nanos) {
+            events.add("answered " + kind);
+        }
+
+        @Override
+        public void dialogHidden(String kind, long nanos) {
+            events.add("hidden " + kind);
+        }
+
+        private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that tasks marshalled onto the JavaFX Application thread
+ * run in submission order, however many are queued.
+ */
+class TestFXDispatcher {
+
+    @BeforeAll
+    static void boot() throws Exception {
+        FxHarness.start();
+    }
+
+    @Test
+    void executeDoesNotOvertakeQueuedTasks() throws Exception {
+        List<Integer> order = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        FxHarness.onFx(() -> {
+            FXDispatcher.enqueue(() -> order.add(1));
+            FXDispatcher.execute(() -> order.add(2));
+            FXDispatcher.enqueue(done::countDown);
+            return null;
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2), order);
+    }
+
+    @Test
+    void executeRunsImmediatelyWhenNothingIsQueued() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        FXDispatcher.enqueue(done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        boolean ranInline = FxHarness.onFx(() -> {
+            boolean[] ran = new boolean[1];
+            FXDispatcher.execute(() -> ran[0] = true);
+            return ran[0];
+        });
+        assertTrue(ranInline);
+    }
+
+    @Test
+    void burstFromWorkerRunsInOrder() throws Exception {
+        List<Integer> order = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        Thread worker = new Thread(() -> {
+            for (int i = 0; i < TASKS; i++) {
+                int n = i;
+                FXDispatcher.execute(() -> order.add(n));
+            }
+            FXDispatcher.execute(done::countDown);
+        });
+        worker.start();
+        assertTrue(done.await(10, TimeUnit.SECONDS), "Queued tasks were not all run");
+        assertEquals(TASKS, order.size());
+        for (int i = 0; i < TASKS; i++) {
+            assertEquals(i, (int) order.get(i));
+        }
+        assertEquals(0, (int) FxHarness.onFx(FXDispatcher::getQueueDepth));
+    }
+
+    private static final int TASKS = 10_000;
+
+}
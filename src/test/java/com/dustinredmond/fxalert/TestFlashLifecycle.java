@@ -0,0 +1,141 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+import javafx.stage.Window;
+import javafx.util.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that a flash Stage hidden before its fade ends stops being
+ * animated, so that the next flash shown on it gets its full hold time.
+ */
+class TestFlashLifecycle {
+
+    @BeforeAll
+    static void boot() throws Exception {
+        FxHarness.start();
+    }
+
+    @AfterEach
+    void hideFlashes() throws Exception {
+        FxHarness.onFx(() -> {
+            flashStages().forEach(Stage::hide);
+            return null;
+        });
+    }
+
+    @Test
+    void hidingOwnerCancelsFade() throws Exception {
+        FxHarness.requireTextRendering();
+        Stage owner = FxHarness.onFx(() -> {
+            Stage stage = new Stage();
+            stage.setScene(new Scene(new Group(), 100, 100));
+            stage.show();
+            return stage;
+        });
+        try {
+            show(FXAlert.flash(owner).withContent("Owned"), SHORT_HOLD);
+            Thread.sleep(100);
+            FxHarness.onFx(() -> {
+                owner.hide();
+                // desktop windowing systems hide owned windows with their owner
+                flashStages().stream().filter(s -> s.getOwner() == owner).forEach(Stage::hide);
+                return null;
+            });
+            assertEquals(0, (int) FxHarness.onFx(FlashAnimator::getActiveCount));
+
+            FxHarness.onFx(() -> {
+                owner.show();
+                return null;
+            });
+            show(FXAlert.flash(owner).withContent("Owned again"), LONG_HOLD);
+            assertShownPastShortHold();
+        } finally {
+            FxHarness.onFx(() -> {
+                owner.hide();
+                return null;
+            });
+        }
+    }
+
+    @Test
+    void reusedStageGetsFullHold() throws Exception {
+        FxHarness.requireTextRendering();
+        FlashStagePool pool = FXAlert.getFlashManager().getStagePool();
+        show(FXAlert.flash().withContent("First"), SHORT_HOLD);
+        Thread.sleep(100);
+        FxHarness.onFx(() -> {
+            flashStages().forEach(Stage::hide);
+            return null;
+        });
+        long created = FxHarness.onFx(pool::getCreatedCount);
+        show(FXAlert.flash().withContent("Second"), LONG_HOLD);
+        assertEquals(created, (long) FxHarness.onFx(pool::getCreatedCount), "Stage should be reused");
+        assertShownPastShortHold();
+    }
+
+    /**
+     * Shows a flash with the given hold time and a negligible
+     * fade, and waits until it is visible.
+     */
+    private static void show(FlashBuilder flash, Duration hold) throws Exception {
+        FlashManager flashes = FXAlert.getFlashManager();
+        int visible = FxHarness.onFx(flashes::getVisibleCount);
+        FxHarness.onFx(() -> {
+            flash.withHoldDuration(hold).withFadeDuration(Duration.millis(1)).show();
+            return null;
+        });
+        long deadline = System.nanoTime() + FxHarness.budget(5_000_000_000L);
+        while (FxHarness.onFx(flashes::getVisibleCount) <= visible) {
+            assertTrue(System.nanoTime() < deadline, "Flash was not shown in time");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Waits until the first flash's schedule would have hidden
+     * its Stage, and checks that the second flash is still shown.
+     */
+    private static void assertShownPastShortHold() throws Exception {
+        Thread.sleep((long) SHORT_HOLD.toMillis() + 200);
+        assertEquals(1, (int) FxHarness.onFx(() -> FXAlert.getFlashManager().getVisibleCount()),
+            "Flash was hidden before its hold time passed");
+    }
+
+    private static List<Stage> flashStages() {
+        return Window.getWindows().stream()
+            .filter(w -> w instanceof Stage && ((Stage) w).getStyle() == StageStyle.UNDECORATED)
+            .map(w -> (Stage) w)
+            .collect(Collectors.toList());
+    }
+
+    private static final Duration SHORT_HOLD = Duration.millis(600);
+    private static final Duration LONG_HOLD = Duration.seconds(5);
+
+}
@@ -0,0 +1,66 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import javafx.util.Duration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that Stages returned to the flash Stage pool are reused,
+ * and are no longer animated once returned.
+ */
+class TestFlashStagePool {
+
+    @BeforeAll
+    static void boot() throws Exception {
+        FxHarness.start();
+    }
+
+    @Test
+    void releasedStageIsReused() throws Exception {
+        FxHarness.onFx(() -> {
+            FlashStagePool pool = new FlashStagePool();
+            FlashStagePool.PooledStage pooled = pool.acquire(null);
+            pool.release(pooled);
+            assertEquals(1, pool.getIdleCount());
+            assertSame(pooled, pool.acquire(null));
+            assertEquals(1, pool.getCreatedCount());
+            pool.release(pooled);
+            pool.setMaxSize(0);
+            return null;
+        });
+    }
+
+    @Test
+    void releaseCancelsFade() throws Exception {
+        FxHarness.onFx(() -> {
+            FlashStagePool pool = new FlashStagePool();
+            FlashStagePool.PooledStage pooled = pool.acquire(null);
+            int active = FlashAnimator.getActiveCount();
+            FlashAnimator.start(pooled.stage, Duration.seconds(30), Duration.seconds(1));
+            pool.release(pooled);
+            assertEquals(active, FlashAnimator.getActiveCount());
+            pool.setMaxSize(0);
+            return null;
+        });
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javafx.util.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Shows flash notifications headless and checks the FlashManager
+ * displays a sustained stream of them, bounds its queue, and
+ * coalesces duplicates. Flashes are held only briefly, and each
+ * test waits for all of them to be hidden.
+ */
+class TestFlashThroughput {
+
+    @BeforeAll
+    static void boot() throws Exception {
+        FxHarness.start();
+    }
+
+    @BeforeEach
+    void configure() throws Exception {
+        FxHarness.requireTextRendering();
+        FxHarness.onFx(() -> {
+            FlashManager flashes = FXAlert.getFlashManager();
+            maxVisible = flashes.getMaxVisible();
+            maxQueued = flashes.getMaxQueued();
+            overflowPolicy = flashes.getOverflowPolicy();
+            hold = flashes.getHoldDuration();
+            fade = flashes.getFadeDuration();
+            coalesceWindow = flashes.getCoalesceWindow();
+            flashes.setMaxVisible(MAX_VISIBLE);
+            flashes.setMaxQueued(FLASHES);
+            flashes.setOverflowPolicy(FlashManager.OverflowPolicy.DROP_OLDEST);
+            flashes.setHoldDuration(Duration.millis(1));
+            flashes.setFadeDuration(Duration.millis(1));
+            flashes.setCoalesceWindow(Duration.ZERO);
+            return null;
+        });
+    }
+
+    @AfterEach
+    void restore() throws Exception {
+        if (overflowPolicy == null) {
+            // skipped before being configured
+            return;
+        }
+        awaitHidden();
+        FxHarness.onFx(() -> {
+            FlashManager flashes = FXAlert.getFlashManager();
+            flashes.setMaxVisible(maxVisible);
+            flashes.setMaxQueued(maxQueued);
+            flashes.setOverflowPolicy(overflowPolicy);
+            flashes.setHoldDuration(hold);
+            flashes.setFadeDuration(fade);
+            flashes.setCoalesceWindow(coalesceWindow);
+            return null;
+        });
+    }
+
+    @Test
+    void sustainedDisplayRateWithinBudget() throws Exception {
+        FlashManager flashes = FXAlert.getFlashManager();
+        long dropped = flashes.getDroppedCount();
+        long start = System.nanoTime();
+        submit(FLASHES, true);
+        awaitHidden();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        assertEquals(dropped, flashes.getDroppedCount(), "No flash may be dropped");
+        double perSecond = FLASHES / seconds;
+        double budget = 50 / FxHarness.budgetScale();
+        assertTrue(perSecond >= budget, () -> String.format(
+            "%.0f flashes/sec shown and hidden, below the budget of %.0f flashes/sec", perSecond, budget));
+    }
+
+    @Test
+    void queueNeverExceedsLimit() throws Exception {
+        FxHarness.onFx(() -> {
+            FXAlert.getFlashManager().setMaxQueued(10);
+            return null;
+        });
+        submit(100, true);
+        FlashManager flashes = FXAlert.getFlashManager();
+        assertTrue(flashes.getVisibleCount() <= flashes.getMaxVisible());
+        assertTrue(flashes.getQueueDepth() <= flashes.getMaxQueued());
+    }
+
+    @Test
+    void duplicatesAreCoalesced() throws Exception {
+        FxHarness.onFx(() -> {
+            FXAlert.getFlashManager().setCoalesceWindow(Duration.seconds(30));
+            return null;
+        });
+        long before = FXAlert.getFlashManager().getCoalescedCount();
+        submit(50, false);
+        assertEquals(49, FXAlert.getFlashManager().getCoalescedCount() - before);
+    }
+
+    private static void submit(int count, boolean distinct) throws Exception {
+        FxHarness.onFx(() -> {
+            for (int i = 0; i < count; i++) {
+                FXAlert.flash().warn()
+                    .withHeader("Throughput")
+                    .withContent(distinct ? "Flash " + (counter++) : "Duplicate")
+                    .show();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Waits until no flash is visible or queued.
+     */
+    private static void awaitHidden() throws Exception {
+        FlashManager flashes = FXAlert.getFlashManager();
+        long deadline = System.nanoTime() + FxHarness.budget(30_000_000_000L);
+        while (FxHarness.onFx(() -> flashes.getVisibleCount() + flashes.getQueueDepth()) > 0) {
+            assertTrue(System.nanoTime() < deadline, "Flashes were not hidden in time");
+            Thread.sleep(5);
+        }
+    }
+
+    private static final int FLASHES = 200;
+    private static final int MAX_VISIBLE = 10;
+    private static int counter;
+    private int maxVisible;
+    private int maxQueued;
+    private FlashManager.OverflowPolicy overflowPolicy;
+    private Duration hold;
+    private Duration fade;
+    private Duration coalesceWindow;
+
+}
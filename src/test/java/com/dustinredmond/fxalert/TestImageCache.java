@@ -0,0 +1,96 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javafx.scene.image.Image;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks the byte accounting of cached images, in particular
+ * of images loaded in the background at their natural size.
+ */
+class TestImageCache {
+
+    @BeforeAll
+    static void boot() throws Exception {
+        FxHarness.start();
+    }
+
+    @Test
+    void syncImageIsAccountedAtDecodedSize() throws Exception {
+        ImageCache cache = new ImageCache();
+        Image image = cache.get(png(WIDTH, HEIGHT));
+        assertEquals(WIDTH, image.getWidth());
+        assertEquals(BYTES, cache.getStrongBytes());
+        assertSame(image, cache.get(png(WIDTH, HEIGHT)));
+    }
+
+    @Test
+    void backgroundImageIsAccountedOnceLoaded() throws Exception {
+        ImageCache cache = new ImageCache();
+        Image image = cache.load(png(WIDTH, HEIGHT), 0, 0);
+        awaitLoaded(image);
+        assertEquals(BYTES, cache.getStrongBytes());
+    }
+
+    @Test
+    void backgroundImageOverBudgetIsNotHeldStrongly() throws Exception {
+        ImageCache cache = new ImageCache();
+        cache.setMaxBytes(BYTES - 1);
+        awaitLoaded(cache.load(png(WIDTH, HEIGHT), 0, 0));
+        assertEquals(0, cache.getStrongBytes());
+    }
+
+    private String png(int width, int height) throws IOException {
+        Path file = dir.resolve(width + "x" + height + ".png");
+        if (!Files.exists(file)) {
+            ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", file.toFile());
+        }
+        return file.toUri().toString();
+    }
+
+    /**
+     * Waits until the image has loaded and its progress
+     * listeners have run on the JavaFX Application thread.
+     */
+    private static void awaitLoaded(Image image) throws Exception {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (FxHarness.onFx(image::getProgress) < 1) {
+            assertTrue(System.nanoTime() < deadline, "Image did not load");
+            Thread.sleep(10);
+        }
+        assertTrue(!image.isError(), "Image failed to load");
+    }
+
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 300;
+    private static final long BYTES = 4L * WIDTH * HEIGHT;
+    @TempDir
+    Path dir;
+
+}
@@ -0,0 +1,69 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks line indexing of memory-mapped choice files.
+ */
+class TestMappedFileChoiceSource {
+
+    @Test
+    void pagesAndSearchesLines() throws IOException {
+        MappedFileChoiceSource source = new MappedFileChoiceSource(write("alpha\nbeta\r\ngamma"));
+        assertEquals(3, source.count());
+        assertEquals(List.of("beta", "gamma"), source.page(1, 5));
+        assertEquals(List.of("gamma"), source.search("AMM", 5));
+    }
+
+    @Test
+    void rejectsCharsetsWithWideLineFeeds() throws IOException {
+        Path file = write("alpha\n");
+        assertThrows(IllegalArgumentException.class,
+                () -> new MappedFileChoiceSource(file, StandardCharsets.UTF_16));
+    }
+
+    @Test
+    void interruptedIndexingIsRetried() throws IOException {
+        MappedFileChoiceSource source = new MappedFileChoiceSource(write("alpha\nbeta\n"));
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(CancellationException.class, source::count);
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(2, source.count());
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(dir.resolve("choices.txt"), content);
+    }
+
+    @TempDir
+    Path dir;
+}
@@ -0,0 +1,91 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.TextField;
+import javafx.scene.control.TextInputDialog;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Types into a numeric input dialog's editor and checks
+ * which edits are accepted and when OK is enabled.
+ */
+class TestNumericInput {
+
+    @BeforeAll
+    static void boot() throws Exception {
+        FxHarness.start();
+    }
+
+    @Test
+    void rejectsNonDigits() throws Exception {
+        String text = FxHarness.onFx(() -> {
+            TextField editor = install(NumericInput.Kind.INTEGER, Locale.US).getEditor();
+            editor.appendText("12");
+            editor.appendText("a");
+            editor.appendText("3");
+            return editor.getText();
+        });
+        assertEquals("123", text);
+    }
+
+    @Test
+    void rejectsIntegerOverflow() throws Exception {
+        String text = FxHarness.onFx(() -> {
+            TextField editor = install(NumericInput.Kind.INTEGER, Locale.US).getEditor();
+            editor.appendText("2147483647");
+            editor.appendText("0");
+            return editor.getText();
+        });
+        assertEquals("2147483647", text);
+    }
+
+    @Test
+    void okEnabledOnlyForCompleteNumbers() throws Exception {
+        FxHarness.onFx(() -> {
+            TextInputDialog dialog = install(NumericInput.Kind.DOUBLE, Locale.US);
+            dialog.getEditor().appendText("-");
+            assertTrue(dialog.getDialogPane().lookupButton(ButtonType.OK).isDisabled());
+            dialog.getEditor().appendText("5.25");
+            assertFalse(dialog.getDialogPane().lookupButton(ButtonType.OK).isDisabled());
+            return null;
+        });
+    }
+
+    @Test
+    void normalizesLocalizedNumbers() throws Exception {
+        String normalized = FxHarness.onFx(() -> {
+            NumericInput input = new NumericInput(NumericInput.Kind.DOUBLE, Locale.GERMANY);
+            TextField editor = input.installOn(new TextInputDialog()).getEditor();
+            editor.appendText("1.234,5");
+            return input.normalize(editor.getText());
+        });
+        assertEquals("1234.5", normalized);
+    }
+
+    private static TextInputDialog install(NumericInput.Kind kind, Locale locale) {
+        return new NumericInput(kind, locale).installOn(new TextInputDialog());
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.dustinredmond.fxalert;
+
+/*
+ *  Copyright 2022  Dustin K. Redmond
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Loads choices from ChoiceSources, including failing ones,
+ * without showing the dialog.
+ */
+class TestSourceChoicePane {
+
+    @BeforeAll
+    static void boot() throws Exception {
+        FxHarness.start();
+    }
+
+    @Test
+    void convertsChoicesOfAnyType() throws Exception {
+        ChoiceSource<Integer> numbers = new ChoiceSource<>() {
+            @Override
+            public int count() {
+                return 250;
+            }
+
+            @Override
+            public List<Integer> page(int offset, int limit) {
+                List<Integer> page = new ArrayList<>();
+                for (int i = offset; i < Math.min(offset + limit, 250); i++) {
+                    page.add(i);
+                }
+                return page;
+            }
+
+            @Override
+            public List<Integer> search(String query, int limit) {
+                return List.of();
+            }
+        };
+        ListView<?> list = FxHarness.onFx(() -> (ListView<?>) FXAlert.choose()
+            .withChoiceSource(numbers, n -> "#" + n)
+            .build().getDialogPane().lookup(".list-view"));
+        await(() -> list.getItems().size() == 250);
+        await(() -> "#120".equals(list.getItems().get(120)));
+    }
+
+    @Test
+    void failedCountShowsError() throws Exception {
+        SourceChoicePane pane = FxHarness.onFx(() -> new SourceChoicePane(new Numbers(-1)));
+        await(() -> "Failed to load choices".equals(((Label) pane.list.getPlaceholder()).getText()));
+        assertTrue(FxHarness.onFx(() -> pane.list.getItems().isEmpty()));
+    }
+
+    @Test
+    void failedPageShowsErrorAndIsRetried() throws Exception {
+        Numbers numbers = new Numbers(10);
+        numbers.failPages = true;
+        SourceChoicePane pane = FxHarness.onFx(() -> new SourceChoicePane(numbers));
+        await(() -> pane.list.getItems().size() == 10);
+        await(() -> "Failed to load choices".equals(cellText(pane, 0)));
+        assertEquals(1, numbers.pageCalls.get());
+
+        numbers.failPages = false;
+        FxHarness.onFx(() -> {
+            pane.filterChanged("");
+            return null;
+        });
+        await(() -> "0".equals(cellText(pane, 0)));
+        assertEquals(2, numbers.pageCalls.get());
+    }
+
+    /**
+     * Returns the text a cell of the list shows for the row,
+     * which requests the row's page if not loaded yet.
+     */
+    private static String cellText(SourceChoicePane pane, int index) {
+        ListCell<String> cell = pane.list.getCellFactory().call(pane.list);
+        cell.updateListView(pane.list);
+        cell.updateIndex(index);
+        return cell.getText();
+    }
+
+    /**
+     * Polls the condition on the JavaFX Application thread until it holds.
+     */
+    private static void await(Callable<Boolean> condition) throws Exception {
+        long deadline = System.nanoTime() + FxHarness.budget(10_000_000_000L);
+        while (!FxHarness.onFx(condition)) {
+            assertTrue(System.nanoTime() < deadline, "Choices were not loaded in time");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * The numbers from 0 as text, failing to count if the count is negative.
+     */
+    private static final class Numbers implements ChoiceSource<String> {
+
+        private Numbers(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public int count() {
+            if (count < 0) {
+                throw new IllegalStateException("Count failed on purpose");
+            }
+            return count;
+        }
+
+        @Override
+        public List<String> page(int offset, int limit) {
+            pageCalls.incrementAndGet();
+            if (failPages) {
+                throw new IllegalStateException("Page failed on purpose");
+            }
+            List<String> page = new ArrayList<>();
+            for (int i = offset; i < Math.min(offset + limit, count); i++) {
+                page.add(String.valueOf(i));
+            }
+            return page;
+        }
+
+        @Override
+        public List<String> search(String query, int limit) {
+            return List.of();
+        }
+
+        private final int count;
+        private final AtomicInteger pageCalls = new AtomicInteger();
+        private volatile boolean failPages;
+    }
+
+}